@@ -1,37 +1,84 @@
 package com.epam.training.food;
 
-import com.epam.training.food.data.OrderWriter;
+import com.epam.training.food.data.ExportSummary;
+import com.epam.training.food.data.OrderExportFormat;
+import com.epam.training.food.data.OrderExportFormats;
 import com.epam.training.food.domain.Credentials;
 import com.epam.training.food.domain.Customer;
 import com.epam.training.food.service.LowBalanceException;
+import com.epam.training.food.service.OutOfStockException;
 import com.epam.training.food.domain.Order;
+import com.epam.training.food.export.IncrementalOrderExporter;
+import com.epam.training.food.export.ShardedOrderExporter;
+import com.epam.training.food.importer.ImportSummary;
+import com.epam.training.food.importer.OrderImporter;
 import com.epam.training.food.service.AuthenticationException;
 import com.epam.training.food.service.DefaultFoodDeliveryService;
 import com.epam.training.food.values.FoodSelection;
 import com.epam.training.food.view.CLIView;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
+import java.io.OutputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Scanner;
 
 @Component
 public class Application implements CommandLineRunner {
+    private static final String BATCH_EXPORT_MODE = "batch";
+    private static final String SHARDED_EXPORT_MODE = "sharded";
+    private static final String INCREMENTAL_EXPORT_MODE = "incremental";
+
     private DefaultFoodDeliveryService foodDeliveryService;
+    private ShardedOrderExporter shardedOrderExporter;
+    private IncrementalOrderExporter incrementalOrderExporter;
+    private OrderExportFormats exportFormats;
+    private OrderImporter orderImporter;
     private final Scanner scanner = new Scanner(System.in);
-    private final OrderWriter writer = new OrderWriter();
     CLIView cliView;
     Customer customer;
+    @Value("${orders.export.mode:event-log}")
+    private String exportMode;
+    @Value("${orders.export.format:csv}")
+    private String exportFormat;
+    @Value("${orders.export.merge:true}")
+    private boolean mergeShards;
+    @Value("${orders.import.path:}")
+    private String importPath;
 
     @Override
     public void run(String... args) throws Exception {
         cliView = new CLIView();
 
+        //an import run places the orders of the file and skips the shopping session
+        if (!importPath.isEmpty()) {
+            ImportSummary summary = orderImporter.importOrders(Path.of(importPath), Path.of(importPath + ".rejects"));
+            System.out.println("Imported " + summary.imported() + " of " + summary.read() + " order(s), "
+                    + summary.rejected() + " rejected, see " + importPath + ".rejects");
+            return;
+        }
+
         if (loginAndVerifyUser()) {
             shoppingState();
 
-            writer.writeOrdersToFile(foodDeliveryService.getALlOrdersDTO(), Path.of("./orders"));
+            //in event-log mode every order has already been appended by OrderEventLog
+            if (BATCH_EXPORT_MODE.equals(exportMode)) {
+                OrderExportFormat format = exportFormats.get(exportFormat);
+                ExportSummary summary;
+                try (OutputStream out = Files.newOutputStream(Path.of("./orders" + format.getFileExtension()))) {
+                    summary = format.write(foodDeliveryService.streamAllOrdersDTO(), out);
+                }
+                System.out.println("Exported " + summary.rows() + " order item row(s), " + summary.bytes() + " bytes.");
+            } else if (SHARDED_EXPORT_MODE.equals(exportMode)) {
+                ExportSummary summary = shardedOrderExporter.export(Path.of("./orders"), mergeShards);
+                System.out.println("Exported " + summary.rows() + " order item row(s), " + summary.bytes() + " bytes.");
+            } else if (INCREMENTAL_EXPORT_MODE.equals(exportMode)) {
+                ExportSummary summary = incrementalOrderExporter.export(Path.of("./orders"));
+                System.out.println("Appended " + summary.rows() + " new order item row(s), " + summary.bytes() + " bytes.");
+            }
         } else {
             System.out.println("Authentication failed. Program terminating.");
         }
@@ -42,6 +89,26 @@ public class Application implements CommandLineRunner {
         this.foodDeliveryService = foodDeliveryService;
     }
 
+    @Autowired
+    private void setExportFormats(OrderExportFormats exportFormats) {
+        this.exportFormats = exportFormats;
+    }
+
+    @Autowired
+    private void setIncrementalOrderExporter(IncrementalOrderExporter incrementalOrderExporter) {
+        this.incrementalOrderExporter = incrementalOrderExporter;
+    }
+
+    @Autowired
+    private void setShardedOrderExporter(ShardedOrderExporter shardedOrderExporter) {
+        this.shardedOrderExporter = shardedOrderExporter;
+    }
+
+    @Autowired
+    private void setOrderImporter(OrderImporter orderImporter) {
+        this.orderImporter = orderImporter;
+    }
+
 
     private boolean loginAndVerifyUser() {
         Credentials credentials = cliView.readCredentials();
@@ -64,7 +131,7 @@ public class Application implements CommandLineRunner {
         while (userWantsToContinueShopping) {
             cliView.printAllFoods(foodDeliveryService.listAllFood());
 
-            FoodSelection foodSelection = cliView.readFoodSelection(foodDeliveryService.listAllFood());
+            FoodSelection foodSelection = cliView.readFoodSelection(foodDeliveryService.getMenuIndex());
 
             updateCart(foodSelection);
 
@@ -95,6 +162,9 @@ public class Application implements CommandLineRunner {
                 } catch (IllegalStateException e) {
                     System.out.println("Error while making Order: Cart is empty");
                     validChoice = false;
+                } catch (OutOfStockException e) {
+                    System.out.println("Error while making Order: " + e.getMessage());
+                    validChoice = false;
                 }
             } else {
                 System.out.println("Invalid choice. Please enter 1 or 2.");
@@ -105,7 +175,7 @@ public class Application implements CommandLineRunner {
 
     private void updateCart(FoodSelection foodSelection) {
         try {
-            foodDeliveryService.updateCart(customer, foodSelection.food(), foodSelection.amount());
+            foodDeliveryService.updateSessionCart(customer, foodSelection.food(), foodSelection.amount());
             cliView.printAddedToCart(foodSelection.food(), foodSelection.amount());
         } catch (LowBalanceException e) {
             System.out.println("Unable to add current order for" + foodSelection.food() +
@@ -117,8 +187,8 @@ public class Application implements CommandLineRunner {
     }
 
     private void checkout() {
-        Order order = foodDeliveryService.createOrder(customer);
-        cliView.printOrderCreatedStatement(order, customer.getBalance());
+        Order order = foodDeliveryService.checkoutSessionCart(customer);
+        cliView.printOrderCreatedStatement(order, order.getCustomer().getBalance());
     }
 
 }
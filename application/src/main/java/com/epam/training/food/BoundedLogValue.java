@@ -0,0 +1,121 @@
+package com.epam.training.food;
+
+import com.epam.training.food.domain.Cart;
+import org.hibernate.proxy.HibernateProxy;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.lang.reflect.Field;
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+//rendered only when the logger formats the message, and never longer than maxLength characters
+final class BoundedLogValue {
+    private static final String ELLIPSIS = "...";
+    private static final ClassValue<Field> ID_FIELDS = new ClassValue<>() {
+        @Override
+        protected Field computeValue(Class<?> type) {
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (field.isAnnotationPresent(Id.class)) {
+                        field.setAccessible(true);
+                        return field;
+                    }
+                }
+            }
+            return null;
+        }
+    };
+
+    private final Object value;
+    private final int maxLength;
+
+    BoundedLogValue(Object value, int maxLength) {
+        this.value = value;
+        this.maxLength = maxLength;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(Math.min(maxLength, 256) + ELLIPSIS.length());
+        append(builder, value);
+        if (builder.length() > maxLength) {
+            builder.setLength(maxLength);
+            builder.append(ELLIPSIS);
+        }
+        return builder.toString();
+    }
+
+    //containers are walked element by element and stop as soon as the cap is reached; entities and carts are
+    //summarized instead of rendered through toString, which would pull in every association
+    private void append(StringBuilder builder, Object value) {
+        if (builder.length() > maxLength) return;
+
+        if (value instanceof CharSequence text) {
+            builder.append(text, 0, Math.min(text.length(), maxLength - builder.length() + 1));
+        } else if (value instanceof Collection<?> collection) {
+            appendElements(builder, collection, collection.size());
+        } else if (value instanceof Object[] array) {
+            appendElements(builder, Arrays.asList(array), array.length);
+        } else if (value instanceof Map<?, ?> map) {
+            appendElements(builder, map.entrySet(), map.size());
+        } else if (value instanceof Map.Entry<?, ?> entry) {
+            append(builder, entry.getKey());
+            builder.append('=');
+            append(builder, entry.getValue());
+        } else if (value instanceof HibernateProxy proxy) {
+            builder.append(proxy.getHibernateLazyInitializer().getEntityName().replaceAll(".*\\.", ""))
+                    .append('#').append(proxy.getHibernateLazyInitializer().getIdentifier());
+        } else if (value != null && value.getClass().isAnnotationPresent(Entity.class)) {
+            builder.append(value.getClass().getSimpleName()).append('#').append(idOf(value));
+        } else if (value instanceof Cart cart) {
+            builder.append("Cart{items=").append(cart.getOrderItems().size()).append(", price=").append(cart.getPrice()).append('}');
+        } else if (value instanceof Record record) {
+            appendComponents(builder, record);
+        } else {
+            builder.append(value);
+        }
+    }
+
+    private void appendElements(StringBuilder builder, Iterable<?> elements, int size) {
+        builder.append('[');
+        int appended = 0;
+        for (Object element : elements) {
+            if (builder.length() > maxLength) {
+                builder.append(ELLIPSIS).append(" (").append(size - appended).append(" more)");
+                break;
+            }
+            if (appended > 0) builder.append(", ");
+            append(builder, element);
+            appended++;
+        }
+        builder.append(']');
+    }
+
+    private void appendComponents(StringBuilder builder, Record record) {
+        builder.append(record.getClass().getSimpleName()).append('[');
+        RecordComponent[] components = record.getClass().getRecordComponents();
+        for (int i = 0; i < components.length && builder.length() <= maxLength; i++) {
+            if (i > 0) builder.append(", ");
+            builder.append(components[i].getName()).append('=');
+            try {
+                append(builder, components[i].getAccessor().invoke(record));
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                builder.append('?');
+            }
+        }
+        builder.append(']');
+    }
+
+    private static Object idOf(Object entity) {
+        Field idField = ID_FIELDS.get(entity.getClass());
+        if (idField == null) return "?";
+        try {
+            return idField.get(entity);
+        } catch (IllegalAccessException e) {
+            return "?";
+        }
+    }
+}
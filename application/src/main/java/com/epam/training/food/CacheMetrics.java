@@ -0,0 +1,27 @@
+package com.epam.training.food;
+
+import com.epam.training.food.cache.MenuCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+//exposes the menu cache hit and miss counts under /actuator/metrics/cache.gets
+@Component
+public class CacheMetrics implements MeterBinder {
+    private final MenuCache menuCache;
+
+    public CacheMetrics(MenuCache menuCache) {
+        this.menuCache = menuCache;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", menuCache, MenuCache::getHits)
+                .tags("cache", "menu", "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", menuCache, MenuCache::getMisses)
+                .tags("cache", "menu", "result", "miss")
+                .register(registry);
+    }
+}
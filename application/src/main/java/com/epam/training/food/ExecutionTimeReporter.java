@@ -0,0 +1,45 @@
+package com.epam.training.food;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+//one summary line per timed method and interval, the same histograms are served by /actuator/metrics
+@Component
+public class ExecutionTimeReporter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExecutionTimeReporter.class);
+
+    private final MeterRegistry meterRegistry;
+
+    public ExecutionTimeReporter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Scheduled(fixedRateString = "${execution-time.summary-interval:PT1M}", initialDelayString = "${execution-time.summary-interval:PT1M}")
+    public void logSummary() {
+        if (!LOGGER.isInfoEnabled()) return;
+
+        for (Timer timer : meterRegistry.find(LoggingAspect.EXECUTION_TIME_METRIC).timers()) {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            if (snapshot.count() == 0) continue;
+
+            LOGGER.info("Method name: [{}], calls: {}, p50: {}ms, p99: {}ms, max: {}ms",
+                    timer.getId().getTag("method"), snapshot.count(),
+                    percentileMillis(snapshot, 0.5), percentileMillis(snapshot, 0.99), snapshot.max(TimeUnit.MILLISECONDS));
+        }
+    }
+
+    private static double percentileMillis(HistogramSnapshot snapshot, double percentile) {
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            if (value.percentile() == percentile) return value.value(TimeUnit.MILLISECONDS);
+        }
+        return Double.NaN;
+    }
+}
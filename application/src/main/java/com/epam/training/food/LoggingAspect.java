@@ -1,41 +1,79 @@
 package com.epam.training.food;
 
+import com.epam.training.food.aspect.EnableArgumentLogging;
+import com.epam.training.food.aspect.EnableReturnValueLogging;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.*;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
 @Aspect
 @Component
 public class LoggingAspect {
     private static final Logger LOGGER = LoggerFactory.getLogger(LoggingAspect.class);
+    public static final String EXECUTION_TIME_METRIC = "method.execution.time";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, Timer> executionTimers = new ConcurrentHashMap<>();
+    //scales the per-method sample rates, e.g. 0 turns argument and return value logging off entirely
+    private final double globalSampleRate;
+
+    public LoggingAspect(MeterRegistry meterRegistry, @Value("${logging.aspect.sample-rate:1.0}") double globalSampleRate) {
+        this.meterRegistry = meterRegistry;
+        this.globalSampleRate = globalSampleRate;
+    }
+
 
+    @Before(value = "@annotation(argumentLogging)", argNames = "argumentLogging")
+    public void logMethodParameters(JoinPoint joinPoint, EnableArgumentLogging argumentLogging){
+        if (!LOGGER.isInfoEnabled() || !isSampled(argumentLogging.sampleRate())) return;
 
-    @Before("@annotation(com.epam.training.food.aspect.EnableArgumentLogging)")
-    public void logMethodParameters(JoinPoint joinPoint){
         String methodName = joinPoint.getSignature().getName();
-        Object[] args = joinPoint.getArgs();
-        LOGGER.info("Method name: [{}], parameter(s): {}", methodName, args);
+        LOGGER.info("Method name: [{}], parameter(s): {}", methodName, new BoundedLogValue(joinPoint.getArgs(), argumentLogging.maxLength()));
     }
 
-    @AfterReturning(pointcut = "@annotation(com.epam.training.food.aspect.EnableReturnValueLogging)", returning = "result")
-    public void loggingReturnValue(JoinPoint joinPoint, Object result){
+    @AfterReturning(pointcut = "@annotation(returnValueLogging)", returning = "result", argNames = "returnValueLogging,result")
+    public void loggingReturnValue(JoinPoint joinPoint, EnableReturnValueLogging returnValueLogging, Object result){
+        if (!LOGGER.isInfoEnabled() || !isSampled(returnValueLogging.sampleRate())) return;
+
         String methodName = joinPoint.getSignature().getName();
-        LOGGER.info("Method name: [{}], return value: {}", methodName , result);
+        LOGGER.info("Method name: [{}], return value: {}", methodName , new BoundedLogValue(result, returnValueLogging.maxLength()));
     }
 
-    @Around("@annotation(com.epam.training.food.aspect.EnableExecutionTimeLogging)")
-    public Object logExecutionTime(ProceedingJoinPoint proceedingJoinPoint) throws Throwable {
-        long start = System.currentTimeMillis();
-        Object result = proceedingJoinPoint.proceed();
-        long duration = System.currentTimeMillis() - start;
+    private boolean isSampled(double methodSampleRate) {
+        double sampleRate = methodSampleRate * globalSampleRate;
+        return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
 
-        String methodName = proceedingJoinPoint.getSignature().getName();
-        LOGGER.info("Method name: [{}], Execution time: {}ms", methodName, duration);
+    //recorded into a per-method histogram instead of logged, see ExecutionTimeReporter for the periodic summary
+    @Around("@annotation(com.epam.training.food.aspect.EnableExecutionTimeLogging)")
+    public Object recordExecutionTime(ProceedingJoinPoint proceedingJoinPoint) throws Throwable {
+        Timer timer = executionTimerFor(((MethodSignature) proceedingJoinPoint.getSignature()).getMethod());
+        long start = System.nanoTime();
+        try {
+            return proceedingJoinPoint.proceed();
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
 
-        return result;
+    private Timer executionTimerFor(Method method) {
+        return executionTimers.computeIfAbsent(method, m -> Timer.builder(EXECUTION_TIME_METRIC)
+                .tag("method", m.getDeclaringClass().getSimpleName() + "." + m.getName())
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry));
     }
 
 }
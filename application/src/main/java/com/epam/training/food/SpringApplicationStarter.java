@@ -3,8 +3,10 @@ package com.epam.training.food;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class SpringApplicationStarter {
     public static void main(String[] args) {
         SpringApplication.run(SpringApplicationStarter.class);
@@ -1,5 +1,6 @@
 package com.epam.training.food.view;
 
+import com.epam.training.food.cache.FoodNameIndex;
 import com.epam.training.food.domain.Credentials;
 import com.epam.training.food.domain.Customer;
 import com.epam.training.food.domain.Food;
@@ -40,7 +41,7 @@ public class CLIView implements View{
     }
 
     @Override
-    public FoodSelection readFoodSelection(List<Food> foods) {
+    public FoodSelection readFoodSelection(FoodNameIndex menu) {
         System.out.print("Please enter the name and amount of food (separated by comma) you would like to buy:");
         Scanner scanner = new Scanner(System.in);
 
@@ -61,15 +62,25 @@ public class CLIView implements View{
         }
 
 
-        //find food in list of foods
-        Food food = foods.stream()
-                .filter(f->f.getName().equals(foodName))
-                .findFirst()
-                .orElseThrow();
+        //exact name first (case-insensitive), then an unambiguous prefix
+        Food food = menu.find(foodName).orElseGet(() -> findByUniquePrefix(menu, foodName));
 
         return new FoodSelection(food,amount);
     }
 
+    private Food findByUniquePrefix(FoodNameIndex menu, String foodName) {
+        List<Food> matches = menu.findByPrefix(foodName);
+
+        if (matches.isEmpty()) {
+            throw new IllegalArgumentException("No food found with name " + foodName);
+        }
+        if (matches.size() > 1) {
+            String[] names = matches.stream().map(Food::getName).toArray(String[]::new);
+            throw new IllegalArgumentException("Food name " + foodName + " is ambiguous, did you mean one of " + Arrays.toString(names));
+        }
+        return matches.get(0);
+    }
+
     @Override
     public void printAddedToCart(Food food, int pieces) {
         System.out.println("Added "+ pieces + "piece(s) of " + food.getName() +" to the cart." );
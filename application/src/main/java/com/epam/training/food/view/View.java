@@ -3,6 +3,7 @@ package com.epam.training.food.view;
 import java.math.BigDecimal;
 import java.util.List;
 
+import com.epam.training.food.cache.FoodNameIndex;
 import com.epam.training.food.domain.Credentials;
 import com.epam.training.food.domain.Customer;
 import com.epam.training.food.domain.Food;
@@ -16,7 +17,7 @@ public interface View {
 
     void printAllFoods(List<Food> foods);
 
-    FoodSelection readFoodSelection(List<Food> foods);
+    FoodSelection readFoodSelection(FoodNameIndex menu);
 
     void printAddedToCart(Food food, int pieces);
 
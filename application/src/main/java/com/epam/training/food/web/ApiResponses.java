@@ -0,0 +1,44 @@
+package com.epam.training.food.web;
+
+import com.epam.training.food.domain.Cart;
+import com.epam.training.food.domain.Order;
+import com.epam.training.food.domain.OrderItem;
+import com.epam.training.food.domain.OrderItemDTO;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+//response bodies of the REST API, entities are not serialized directly because Customer and Order reference each other
+public final class ApiResponses {
+
+    private ApiResponses() {
+    }
+
+    public record SessionResponse(String sessionId, String name, BigDecimal balance) {
+    }
+
+    public record CartResponse(List<OrderItemDTO> items, BigDecimal price) {
+        static CartResponse of(Cart cart) {
+            return new CartResponse(toItemDTOs(cart.getOrderItems()), cart.getPrice());
+        }
+    }
+
+    public record OrderResponse(Long orderId, List<OrderItemDTO> items, BigDecimal price, LocalDateTime timestampCreated,
+                         BigDecimal balance) {
+        static OrderResponse of(Order order) {
+            return new OrderResponse(order.getOrderId(), toItemDTOs(order.getOrderItems()), order.getPrice(),
+                    order.getTimestampCreated(), order.getCustomer().getBalance());
+        }
+    }
+
+    public record ErrorResponse(String error) {
+    }
+
+    private static List<OrderItemDTO> toItemDTOs(List<OrderItem> items) {
+        return items.stream()
+                .map(item -> new OrderItemDTO(item.getFood().getId(), item.getFood().getName(), item.getPieces(), item.getPrice()))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,134 @@
+package com.epam.training.food.web;
+
+import com.epam.training.food.analytics.SalesWindow;
+import com.epam.training.food.data.OrderWriter;
+import com.epam.training.food.domain.Credentials;
+import com.epam.training.food.domain.Customer;
+import com.epam.training.food.domain.CustomerSpendingDTO;
+import com.epam.training.food.domain.Food;
+import com.epam.training.food.domain.FoodSalesDTO;
+import com.epam.training.food.domain.Order;
+import com.epam.training.food.service.AuthenticationException;
+import com.epam.training.food.service.DefaultFoodDeliveryService;
+import com.epam.training.food.service.LowBalanceException;
+import com.epam.training.food.service.OutOfStockException;
+import com.epam.training.food.web.ApiResponses.CartResponse;
+import com.epam.training.food.web.ApiResponses.ErrorResponse;
+import com.epam.training.food.web.ApiResponses.OrderResponse;
+import com.epam.training.food.web.ApiResponses.SessionResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+public class FoodDeliveryController {
+    private final DefaultFoodDeliveryService foodDeliveryService;
+    private final ShoppingSessions sessions;
+    private final OrderWriter orderWriter;
+
+    public FoodDeliveryController(DefaultFoodDeliveryService foodDeliveryService, ShoppingSessions sessions, OrderWriter orderWriter) {
+        this.foodDeliveryService = foodDeliveryService;
+        this.sessions = sessions;
+        this.orderWriter = orderWriter;
+    }
+
+    @PostMapping("/sessions")
+    public SessionResponse authenticate(@RequestBody Credentials credentials) {
+        Customer customer = foodDeliveryService.authenticate(credentials);
+        return new SessionResponse(sessions.open(customer), customer.getName(), customer.getBalance());
+    }
+
+    @DeleteMapping("/sessions/{sessionId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void logout(@PathVariable String sessionId) {
+        sessions.close(sessionId);
+    }
+
+    @GetMapping("/foods")
+    public List<Food> listAllFood() {
+        return foodDeliveryService.listAllFood();
+    }
+
+    @GetMapping("/sessions/{sessionId}/cart")
+    public CartResponse getCart(@PathVariable String sessionId) {
+        return CartResponse.of(foodDeliveryService.getSessionCart(customerOf(sessionId)));
+    }
+
+    @PutMapping("/sessions/{sessionId}/cart/{foodId}")
+    public CartResponse updateCart(@PathVariable String sessionId, @PathVariable Long foodId, @RequestParam int pieces) {
+        Customer customer = customerOf(sessionId);
+        Food food = foodDeliveryService.findFood(foodId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown food " + foodId));
+
+        foodDeliveryService.updateSessionCart(customer, food, pieces);
+        return CartResponse.of(foodDeliveryService.getSessionCart(customer));
+    }
+
+    @PostMapping("/sessions/{sessionId}/orders")
+    @ResponseStatus(HttpStatus.CREATED)
+    public OrderResponse createOrder(@PathVariable String sessionId) {
+        Order order = foodDeliveryService.checkoutSessionCart(customerOf(sessionId));
+        sessions.update(sessionId, order.getCustomer());
+        return OrderResponse.of(order);
+    }
+
+    @GetMapping("/sessions/{sessionId}/spending")
+    public CustomerSpendingDTO getSpending(@PathVariable String sessionId) {
+        return foodDeliveryService.getCustomerSpending(customerOf(sessionId).getId());
+    }
+
+    @GetMapping("/foods/top")
+    public List<FoodSalesDTO> getTopDishes(@RequestParam(defaultValue = "10") int limit) {
+        return foodDeliveryService.getTopDishes(limit);
+    }
+
+    //live demand for the kitchen and ops screens, served from in-memory sliding windows
+    @GetMapping("/foods/trending")
+    public List<FoodSalesDTO> getTrendingDishes(@RequestParam(defaultValue = "LAST_HOUR") SalesWindow window,
+                                                @RequestParam(defaultValue = "10") int limit) {
+        return foodDeliveryService.getTrendingDishes(window, limit);
+    }
+
+    //the session's own orders, streamed page by page straight into the response, off the request thread
+    @GetMapping(value = "/sessions/{sessionId}/orders/export", produces = "text/csv")
+    public ResponseEntity<StreamingResponseBody> exportOrders(@PathVariable String sessionId) {
+        long customerId = customerOf(sessionId).getId();
+        StreamingResponseBody body = out -> orderWriter.writeOrdersStreaming(foodDeliveryService.streamCustomerOrdersDTO(customerId), out);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("text/csv")).body(body);
+    }
+
+    @ExceptionHandler(AuthenticationException.class)
+    @ResponseStatus(HttpStatus.UNAUTHORIZED)
+    public ErrorResponse handleAuthenticationException(AuthenticationException e) {
+        return new ErrorResponse(e.getMessage());
+    }
+
+    @ExceptionHandler(LowBalanceException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleLowBalanceException(LowBalanceException e) {
+        return new ErrorResponse(e.getMessage());
+    }
+
+    @ExceptionHandler(OutOfStockException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleOutOfStockException(OutOfStockException e) {
+        return new ErrorResponse(e.getMessage());
+    }
+
+    @ExceptionHandler({IllegalArgumentException.class, IllegalStateException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleInvalidRequest(RuntimeException e) {
+        return new ErrorResponse(e.getMessage());
+    }
+
+    private Customer customerOf(String sessionId) {
+        return sessions.find(sessionId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown session " + sessionId));
+    }
+}
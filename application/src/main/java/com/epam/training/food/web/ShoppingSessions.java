@@ -0,0 +1,96 @@
+package com.epam.training.food.web;
+
+import com.epam.training.food.domain.Customer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+//maps the opaque session id handed out at login to the authenticated customer; sessions idle for longer than the
+//TTL are dropped, and the least recently used ones once the cap is reached
+@Component
+public class ShoppingSessions {
+    //share of the sessions dropped at once when the cap is reached, so the LRU scan is not repeated on every login
+    private static final int LRU_EVICTION_DIVISOR = 100;
+
+    private final Map<String, Session> sessionsById = new ConcurrentHashMap<>();
+    private final long idleTtlNanos;
+    private final int maxSessions;
+
+    public ShoppingSessions(@Value("${api.sessions.idle-ttl:PT30M}") Duration idleTtl,
+                            @Value("${api.sessions.max-sessions:100000}") int maxSessions) {
+        this.idleTtlNanos = idleTtl.toNanos();
+        this.maxSessions = maxSessions;
+    }
+
+    public String open(Customer customer) {
+        makeRoom();
+        String sessionId = UUID.randomUUID().toString();
+        sessionsById.put(sessionId, new Session(customer));
+        return sessionId;
+    }
+
+    public Optional<Customer> find(String sessionId) {
+        Session session = sessionsById.get(sessionId);
+        if (session == null) return Optional.empty();
+
+        long now = System.nanoTime();
+        if (now - session.lastAccessNanos > idleTtlNanos) {
+            sessionsById.remove(sessionId, session);
+            return Optional.empty();
+        }
+        session.lastAccessNanos = now;
+        return Optional.of(session.customer);
+    }
+
+    //the customer read after a checkout, so later balance checks of the session see what was spent
+    public void update(String sessionId, Customer customer) {
+        sessionsById.computeIfPresent(sessionId, (id, session) -> new Session(customer));
+    }
+
+    public void close(String sessionId) {
+        sessionsById.remove(sessionId);
+    }
+
+    public int size() {
+        return sessionsById.size();
+    }
+
+    @Scheduled(fixedDelayString = "${api.sessions.eviction-interval:PT1M}")
+    public int evictIdle() {
+        long now = System.nanoTime();
+        int before = sessionsById.size();
+        sessionsById.values().removeIf(session -> now - session.lastAccessNanos > idleTtlNanos);
+        return before - sessionsById.size();
+    }
+
+    private void makeRoom() {
+        if (sessionsById.size() < maxSessions) return;
+        if (evictIdle() > 0 && sessionsById.size() < maxSessions) return;
+
+        int count = Math.max(1, maxSessions / LRU_EVICTION_DIVISOR);
+        PriorityQueue<Map.Entry<String, Session>> newestOfOldest = new PriorityQueue<>(count + 1,
+                Comparator.comparingLong((Map.Entry<String, Session> entry) -> entry.getValue().lastAccessNanos).reversed());
+        for (Map.Entry<String, Session> entry : sessionsById.entrySet()) {
+            newestOfOldest.add(entry);
+            if (newestOfOldest.size() > count) newestOfOldest.poll();
+        }
+        newestOfOldest.forEach(entry -> sessionsById.remove(entry.getKey(), entry.getValue()));
+    }
+
+    private static final class Session {
+        private final Customer customer;
+        private volatile long lastAccessNanos = System.nanoTime();
+
+        Session(Customer customer) {
+            this.customer = customer;
+        }
+    }
+}
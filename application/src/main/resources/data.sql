@@ -1,11 +1,14 @@
-INSERT INTO customer(id, user_name, password, name, balance) VALUES
-    (1, 'Smith', 'SmithSecret', 'Josh Smith', 100),
-    (2, 'Jane', 'JaneSecret', 'Jane Doe', 100),
-    (3, 'John', 'JohnSecret', 'John Doe', 10);
+INSERT INTO customer(id, user_name, password, name, balance, version) VALUES
+    (1, 'Smith', 'SmithSecret', 'Josh Smith', 100, 0),
+    (2, 'Jane', 'JaneSecret', 'Jane Doe', 100, 0),
+    (3, 'John', 'JohnSecret', 'John Doe', 10, 0);
 
-INSERT INTO food(id, name, description, calorie, price) VALUES
-    (1, 'Fideua', 'Noodles gone wild in a seafood fiesta', 558, 15),
-    (2, 'Paella', 'Rice party with a saffron twist', 379, 13),
-    (3, 'Tortilla', 'A scrumptious flat floury flavor', 278, 10),
-    (4, 'Gazpacho', 'Soup''s cold revenge for scorching summers', 162, 8),
-    (5, 'Quesadilla', 'Cheesy tortilla hug with flavorful fillings', 470, 13);
+INSERT INTO food(id, name, description, calorie, price, stock, version) VALUES
+    (1, 'Fideua', 'Noodles gone wild in a seafood fiesta', 558, 15, 200, 0),
+    (2, 'Paella', 'Rice party with a saffron twist', 379, 13, 200, 0),
+    (3, 'Tortilla', 'A scrumptious flat floury flavor', 278, 10, 200, 0),
+    (4, 'Gazpacho', 'Soup''s cold revenge for scorching summers', 162, 8, 200, 0),
+    (5, 'Quesadilla', 'Cheesy tortilla hug with flavorful fillings', 470, 13, 200, 0);
+
+-- the seeded rows take the first ids, entities saved later continue after them
+ALTER SEQUENCE hibernate_sequence RESTART WITH 100;
@@ -0,0 +1,134 @@
+package com.epam.training.food;
+
+import com.epam.training.food.domain.Cart;
+import com.epam.training.food.domain.Customer;
+import com.epam.training.food.domain.Food;
+import com.epam.training.food.repository.CustomerRepository;
+import com.epam.training.food.repository.FoodRepository;
+import com.epam.training.food.repository.OrderRepository;
+import com.epam.training.food.service.DefaultFoodDeliveryService;
+import com.epam.training.food.service.LowBalanceException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@EnableAutoConfiguration
+@SpringBootTest(classes = SpringApplicationStarter.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ConcurrentOrderIntegrationTest {
+
+    private static final long SMITH_CUSTOMER_ID = 1L;
+    private static final long GAZPACHO_FOOD_ID = 4L;
+    private static final int SHOPPERS = 32;
+    // Smith's balance of 100 covers exactly 12 Gazpachos of 8
+    private static final int AFFORDABLE_ORDERS = 12;
+
+    @MockBean
+    private Application application;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private DefaultFoodDeliveryService foodDeliveryService;
+
+    @Test
+    @DisplayName("concurrent createOrder calls for the same customer should not lose balance updates")
+    void testConcurrentCreateOrderShouldNotLoseBalanceUpdates() throws Exception {
+        // GIVEN
+        Food gazpacho = foodRepository.findById(GAZPACHO_FOOD_ID).get();
+        AtomicInteger placedOrders = new AtomicInteger();
+        AtomicInteger rejectedOrders = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        // WHEN
+        runConcurrently(SHOPPERS, () -> {
+            Customer customer = customerRepository.findById(SMITH_CUSTOMER_ID).get();
+            customer.setCart(Cart.getEmptyCart());
+            foodDeliveryService.updateCart(customer, gazpacho, 1);
+            start.await();
+            try {
+                foodDeliveryService.createOrder(customer);
+                placedOrders.incrementAndGet();
+            } catch (LowBalanceException e) {
+                rejectedOrders.incrementAndGet();
+            }
+            return null;
+        }, start);
+
+        // THEN
+        Customer smith = customerRepository.findById(SMITH_CUSTOMER_ID).get();
+        assertAll("Concurrent orders of one customer were not serialized on the balance",
+                () -> assertEquals(AFFORDABLE_ORDERS, placedOrders.get(), "Wrong number of orders placed."),
+                () -> assertEquals(SHOPPERS - AFFORDABLE_ORDERS, rejectedOrders.get(), "Wrong number of orders rejected."),
+                () -> assertEquals(AFFORDABLE_ORDERS, orderRepository.count(), "Wrong number of orders saved."),
+                () -> assertEquals(new BigDecimal("4.00"), smith.getBalance(), "Balance updates were lost.")
+        );
+    }
+
+    @Test
+    @DisplayName("concurrent session cart updates of one customer should all be kept")
+    void testConcurrentSessionCartUpdatesShouldAllBeKept() throws Exception {
+        // GIVEN
+        List<Food> menu = foodRepository.findAll();
+        BigDecimal expectedPrice = menu.stream().map(Food::getPrice).reduce(BigDecimal.ZERO, BigDecimal::add);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger nextFood = new AtomicInteger();
+
+        // WHEN
+        runConcurrently(menu.size(), () -> {
+            Customer customer = customerRepository.findById(SMITH_CUSTOMER_ID).get();
+            Food food = menu.get(nextFood.getAndIncrement());
+            start.await();
+            foodDeliveryService.updateSessionCart(customer, food, 1);
+            return null;
+        }, start);
+
+        // THEN
+        Cart cart = foodDeliveryService.getSessionCart(customerRepository.findById(SMITH_CUSTOMER_ID).get());
+        assertAll("Concurrent updates of the session cart were lost",
+                () -> assertEquals(menu.size(), cart.getOrderItems().size(), "Wrong number of items in the cart."),
+                () -> assertEquals(0, expectedPrice.compareTo(cart.getPrice()), "Wrong cart price: " + cart.getPrice())
+        );
+    }
+
+    private void runConcurrently(int threads, Callable<Void> task, CountDownLatch start) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(task));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
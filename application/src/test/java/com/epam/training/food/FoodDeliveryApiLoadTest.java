@@ -0,0 +1,128 @@
+package com.epam.training.food;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Load harness against the embedded server, left out of the default build; run it with mvn test -P load-tests
+// and scale it up with -Dloadtest.requests=... -Dloadtest.concurrency=...
+@Tag("load")
+@EnableAutoConfiguration
+@SpringBootTest(classes = SpringApplicationStarter.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class FoodDeliveryApiLoadTest {
+
+    private static final int REQUESTS = Integer.getInteger("loadtest.requests", 2000);
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 64);
+    private static final String[][] CREDENTIALS = {
+            {"Smith", "SmithSecret"}, {"Jane", "JaneSecret"}, {"John", "JohnSecret"}
+    };
+
+    @MockBean
+    private Application application;
+
+    @LocalServerPort
+    private int port;
+
+    private final ExecutorService clientExecutor = Executors.newFixedThreadPool(8);
+    private final HttpClient client = HttpClient.newBuilder().executor(clientExecutor).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @AfterEach
+    void shutDownClient() {
+        clientExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("the API should answer every request of many concurrent shoppers without server errors")
+    void testApiShouldServeConcurrentShoppersWithoutServerErrors() throws Exception {
+        // GIVEN
+        List<String> sessionIds = new ArrayList<>();
+        for (String[] credentials : CREDENTIALS) {
+            sessionIds.add(login(credentials[0], credentials[1]));
+        }
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService shoppers = Executors.newFixedThreadPool(CONCURRENCY);
+
+        // WHEN
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            String sessionId = sessionIds.get(i % sessionIds.size());
+            long foodId = 1 + i % 5;
+            HttpRequest request = i % 2 == 0
+                    ? get("/api/foods")
+                    : put("/api/sessions/" + sessionId + "/cart/" + foodId + "?pieces=1");
+            futures.add(shoppers.submit(() -> {
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                (status < 300 ? succeeded : status < 500 ? rejected : failed).incrementAndGet();
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        shoppers.shutdownNow();
+
+        System.out.printf("%d requests with %d concurrent shoppers in %d ms (%.0f req/s), %d rejected%n",
+                REQUESTS, CONCURRENCY, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                REQUESTS / (elapsedNanos / 1e9), rejected.get());
+
+        // THEN
+        assertAll("The API did not handle the load",
+                () -> assertEquals(0, failed.get(), "Some requests failed with a server error."),
+                () -> assertEquals(REQUESTS, succeeded.get() + rejected.get(), "Some requests were not answered.")
+        );
+    }
+
+    private String login(String userName, String password) throws Exception {
+        String body = objectMapper.createObjectNode()
+                .put("userName", userName)
+                .put("password", password)
+                .toString();
+        HttpRequest request = HttpRequest.newBuilder(uri("/api/sessions"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        JsonNode response = objectMapper.readTree(client.send(request, HttpResponse.BodyHandlers.ofString()).body());
+        return response.get("sessionId").asText();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().build();
+    }
+
+    private HttpRequest put(String path) {
+        return HttpRequest.newBuilder(uri(path)).PUT(HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
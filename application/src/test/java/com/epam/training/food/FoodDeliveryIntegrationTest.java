@@ -1,24 +1,37 @@
 package com.epam.training.food;
 
+import com.epam.training.food.data.ExportSummary;
 import com.epam.training.food.domain.*;
+import com.epam.training.food.export.IncrementalOrderExporter;
+import com.epam.training.food.export.ShardedOrderExporter;
+import com.epam.training.food.importer.ImportSummary;
+import com.epam.training.food.importer.OrderImporter;
+import com.epam.training.food.inventory.InventoryService;
 import com.epam.training.food.repository.CustomerRepository;
 import com.epam.training.food.repository.FoodRepository;
 import com.epam.training.food.service.AuthenticationException;
 import com.epam.training.food.service.DefaultFoodDeliveryService;
 import com.epam.training.food.service.LowBalanceException;
+import com.epam.training.food.service.OutOfStockException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.annotation.DirtiesContext;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -48,6 +61,18 @@ class FoodDeliveryIntegrationTest {
     @Autowired
     private DefaultFoodDeliveryService foodDeliveryService;
 
+    @Autowired
+    private IncrementalOrderExporter incrementalOrderExporter;
+
+    @Autowired
+    private ShardedOrderExporter shardedOrderExporter;
+
+    @Autowired
+    private OrderImporter orderImporter;
+
+    @Autowired
+    private InventoryService inventoryService;
+
     @Test
     @DisplayName("authenticate should return the correct customer when given correct credentials")
     public void testAuthenticateShouldReturnTheCorrectCustomerWhenGivenCorrectCredentials() {
@@ -78,6 +103,22 @@ class FoodDeliveryIntegrationTest {
                         + " email: 'a' and password: 'incorrect'.");
     }
 
+    @Test
+    @DisplayName("authenticate should accept a customer registered after a failed login with the same user name")
+    public void testAuthenticateShouldAcceptACustomerRegisteredAfterAFailedLogin() {
+        // GIVEN
+        Credentials credentials = new Credentials("Newbie", "NewbieSecret");
+        assertThrows(AuthenticationException.class, () -> foodDeliveryService.authenticate(credentials),
+                "authenticate did not reject a user name that does not exist yet.");
+
+        // WHEN
+        Customer saved = customerRepository.save(new Customer("Newbie", "NewbieSecret", 0L, "New Bie", BigDecimal.TEN, getEmptyCart()));
+
+        // THEN
+        assertEquals(saved.getId(), foodDeliveryService.authenticate(credentials).getId(),
+                "authenticate kept rejecting the user name cached as unknown before the customer was saved.");
+    }
+
     @Test
     @DisplayName("createOrder should create order with correct values and save it")
     public void testCreateOrderShouldCreateOrderWithCorrectValuesAndSaveIt() {
@@ -169,6 +210,268 @@ class FoodDeliveryIntegrationTest {
                         + " cart: " + customer.getCart());
     }
 
+    @Test
+    @DisplayName("createOrders should place every order of the batch and deduct each from the balance")
+    public void testCreateOrdersShouldPlaceEveryOrderOfTheBatch() {
+        // GIVEN
+        List<Customer> customers = List.of(
+                getCustomerWithCart(SMITH_CUSTOMER_ID, getOneItemCartWithOneFideua()),
+                getCustomerWithCart(SMITH_CUSTOMER_ID, getOneItemCartWithTwoFideua()));
+
+        // WHEN
+        List<Order> orders = foodDeliveryService.createOrders(customers);
+
+        // THEN
+        assertAll("The batch of orders was not placed correctly",
+                () -> assertEquals(2, orders.size(), "Wrong number of orders created."),
+                () -> assertEquals(new BigDecimal("55.00"), customerRepository.findById(SMITH_CUSTOMER_ID).get().getBalance(),
+                        "Wrong balance after the batch. Balance before: 100, price of orders: 15 and 30.")
+        );
+    }
+
+    @Test
+    @DisplayName("placed orders should be added to the customer's spending and the dish sales")
+    public void testCreateOrderShouldUpdateTheSpendingAndSalesAggregates() {
+        // GIVEN
+        foodDeliveryService.createOrder(getCustomerWithCart(SMITH_CUSTOMER_ID, getOneItemCartWithOneFideua()));
+
+        // WHEN
+        foodDeliveryService.createOrder(getCustomerWithCart(SMITH_CUSTOMER_ID, getOneItemCartWithTwoFideua()));
+
+        // THEN
+        CustomerSpendingDTO spending = foodDeliveryService.getCustomerSpending(SMITH_CUSTOMER_ID);
+        List<FoodSalesDTO> topDishes = foodDeliveryService.getTopDishes(1);
+        assertAll("The aggregates do not match the placed orders",
+                () -> assertEquals(2, spending.orderCount(), "Wrong number of orders."),
+                () -> assertEquals(new BigDecimal("45.00"), spending.totalSpent(), "Wrong total spent."),
+                () -> assertEquals(1L, topDishes.get(0).foodId(), "Fideua should be the top dish."),
+                () -> assertEquals(3, topDishes.get(0).pieces(), "Wrong number of Fideua pieces sold.")
+        );
+    }
+
+    @Test
+    @DisplayName("getTopDishes should return every dish sold when the limit is larger than the menu")
+    public void testGetTopDishesShouldAcceptALimitLargerThanTheMenu() {
+        // GIVEN
+        foodDeliveryService.createOrder(getCustomerWithCart(SMITH_CUSTOMER_ID, getOneItemCartWithOneFideua()));
+
+        // WHEN
+        List<FoodSalesDTO> topDishes = foodDeliveryService.getTopDishes(Integer.MAX_VALUE);
+
+        // THEN
+        assertEquals(1, topDishes.size(), "Wrong number of dishes returned for a limit larger than the menu.");
+    }
+
+    @Test
+    @DisplayName("incremental export should append only the orders placed since the previous export")
+    public void testIncrementalExportShouldAppendOnlyNewOrders(@TempDir Path directory) throws IOException {
+        // GIVEN
+        Path outputPath = directory.resolve("orders");
+        foodDeliveryService.createOrder(getCustomerWithCart(SMITH_CUSTOMER_ID, getOneItemCartWithOneFideua()));
+        ExportSummary first = incrementalOrderExporter.export(outputPath);
+        foodDeliveryService.createOrder(getCustomerWithCart(SMITH_CUSTOMER_ID, getOneItemCartWithTwoFideua()));
+
+        // WHEN
+        ExportSummary second = incrementalOrderExporter.export(outputPath);
+
+        // THEN
+        List<String> lines = Files.readAllLines(outputPath);
+        assertAll("The second export did not append exactly the new order",
+                () -> assertEquals(1, first.rows(), "Wrong number of rows in the first export."),
+                () -> assertEquals(1, second.rows(), "Wrong number of rows appended by the second export."),
+                () -> assertEquals(2, lines.size(), "Wrong number of rows in the export file."),
+                () -> assertTrue(lines.get(1).startsWith("2,"), "The appended row is not the second order: " + lines.get(1))
+        );
+    }
+
+    @Test
+    @DisplayName("incremental export should export everything again when the mark was taken from another order history")
+    public void testIncrementalExportShouldStartOverWhenTheOrderHistoryWasReplaced(@TempDir Path directory) throws IOException {
+        // GIVEN
+        Path outputPath = directory.resolve("orders");
+        String previousRow = "1,3,Paella,1,13,01/01/2024 12:00,13\n";
+        Files.writeString(outputPath, previousRow);
+        Files.writeString(directory.resolve("orders.hwm"), "lastOrderId=1\n"
+                + "lastOrderFingerprint=3@2024-01-01T12\\:00\n"
+                + "committedLength=" + previousRow.length() + "\n");
+        foodDeliveryService.createOrder(getCustomerWithCart(SMITH_CUSTOMER_ID, getOneItemCartWithOneFideua()));
+        foodDeliveryService.createOrder(getCustomerWithCart(SMITH_CUSTOMER_ID, getOneItemCartWithTwoFideua()));
+
+        // WHEN
+        ExportSummary summary = incrementalOrderExporter.export(outputPath);
+
+        // THEN
+        List<String> lines = Files.readAllLines(outputPath);
+        assertAll("The export did not start over for the new order history",
+                () -> assertEquals(2, summary.rows(), "Wrong number of rows exported."),
+                () -> assertEquals(2, lines.size(), "Wrong number of rows in the export file."),
+                () -> assertTrue(lines.get(0).startsWith("1,1,"), "The first row is not the first new order: " + lines.get(0))
+        );
+    }
+
+    @Test
+    @DisplayName("sharded export should empty the merged file of an earlier run when there are no orders")
+    public void testShardedExportShouldTruncateTheMergedFileWithoutOrders(@TempDir Path directory) throws Exception {
+        // GIVEN
+        Path outputPath = directory.resolve("orders");
+        Files.writeString(outputPath, "1,3,Paella,1,13,01/01/2024 12:00,13\n");
+
+        // WHEN
+        ExportSummary summary = shardedOrderExporter.export(outputPath, true);
+
+        // THEN
+        assertAll("The merged file of the earlier run survived",
+                () -> assertEquals(0, summary.rows(), "Wrong number of rows exported."),
+                () -> assertEquals(0, Files.size(outputPath), "The merged file was not truncated.")
+        );
+    }
+
+    @Test
+    @DisplayName("sharded export should delete the part files an earlier run with more shards left behind")
+    public void testShardedExportShouldDeleteStalePartFiles(@TempDir Path directory) throws Exception {
+        // GIVEN
+        Path outputPath = directory.resolve("orders");
+        Path stalePart = directory.resolve("orders.part-099");
+        Path otherFile = directory.resolve("orders.part-notes");
+        Files.writeString(stalePart, "1,3,Paella,1,13,01/01/2024 12:00,13\n");
+        Files.writeString(otherFile, "kept");
+        foodDeliveryService.createOrder(getCustomerWithCart(SMITH_CUSTOMER_ID, getOneItemCartWithOneFideua()));
+
+        // WHEN
+        ExportSummary summary = shardedOrderExporter.export(outputPath, false);
+
+        // THEN
+        assertAll("The stale part file was not deleted",
+                () -> assertEquals(1, summary.rows(), "Wrong number of rows exported."),
+                () -> assertFalse(Files.exists(stalePart), "The stale part file is still there."),
+                () -> assertTrue(Files.exists(otherFile), "A file that is not a part was deleted.")
+        );
+    }
+
+    @Test
+    @DisplayName("importOrders should place the valid orders and report the rejected ones with their reason")
+    public void testImportOrdersShouldPlaceValidOrdersAndReportRejectedOnes(@TempDir Path directory) throws IOException {
+        // GIVEN
+        Path inputPath = directory.resolve("orders");
+        Path rejectReportPath = directory.resolve("orders.rejects");
+        Files.write(inputPath, List.of(
+                "10,1,Fideua,1,15,01/01/2024 12:00,28",
+                "10,1,Paella,1,13,01/01/2024 12:00,28",
+                "11,3,Paella,1,13,01/01/2024 12:05,13",
+                "12,1,Fideua,one,15,01/01/2024 12:10,15"));
+
+        // WHEN
+        ImportSummary summary = orderImporter.importOrders(inputPath, rejectReportPath);
+
+        // THEN
+        List<String> rejects = Files.readAllLines(rejectReportPath);
+        assertAll("The import did not place exactly the valid order",
+                () -> assertEquals(2, summary.read(), "Wrong number of orders read."),
+                () -> assertEquals(1, summary.imported(), "Wrong number of orders imported."),
+                () -> assertEquals(2, summary.rejected(), "Wrong number of orders rejected."),
+                () -> assertEquals(0, new BigDecimal("72").compareTo(customerRepository.findById(SMITH_CUSTOMER_ID).get().getBalance()),
+                        "The imported order was not charged."),
+                () -> assertTrue(rejects.contains("11,\"insufficient balance\""), "The order over the balance was not reported: " + rejects),
+                () -> assertTrue(rejects.get(1).startsWith(",\"line 4:"), "The malformed row was not reported: " + rejects)
+        );
+    }
+
+    @Test
+    @DisplayName("importOrders should skip the orders placed by an earlier import of the same file")
+    public void testImportOrdersShouldSkipOrdersPlacedByAnEarlierImport(@TempDir Path directory) throws IOException {
+        // GIVEN
+        Path inputPath = directory.resolve("orders");
+        Path rejectReportPath = directory.resolve("orders.rejects");
+        Files.write(inputPath, List.of("10,1,Fideua,1,15,01/01/2024 12:00,15"));
+        orderImporter.importOrders(inputPath, rejectReportPath);
+        Files.write(inputPath, List.of("11,1,Paella,1,13,01/01/2024 12:05,13"), StandardOpenOption.APPEND);
+
+        // WHEN
+        ImportSummary summary = orderImporter.importOrders(inputPath, rejectReportPath);
+
+        // THEN
+        List<String> rejects = Files.readAllLines(rejectReportPath);
+        assertAll("The second import placed an order again",
+                () -> assertEquals(2, summary.read(), "Wrong number of orders read."),
+                () -> assertEquals(1, summary.imported(), "Wrong number of orders imported."),
+                () -> assertEquals(0, new BigDecimal("72").compareTo(customerRepository.findById(SMITH_CUSTOMER_ID).get().getBalance()),
+                        "Wrong balance after importing the file twice. Balance before: 100, price of orders: 15 and 13."),
+                () -> assertTrue(rejects.contains("10,\"already imported\""), "The skipped order was not reported: " + rejects)
+        );
+    }
+
+    @Test
+    @DisplayName("createOrders should give the reserved portions back when the batch is rolled back")
+    public void testCreateOrdersShouldReleaseTheReservationsWhenTheBatchIsRolledBack() {
+        // GIVEN
+        Food fideua = foodRepository.findById(1L).get();
+        fideua.setStock(5L);
+        foodRepository.save(fideua);
+        List<Customer> customers = List.of(
+                getCustomerWithCart(SMITH_CUSTOMER_ID, getOneItemCartWithOneFideua()),
+                getCustomerWithCart(JOHN_CUSTOMER_ID, getOneItemCartWithOneFideua()));
+
+        // WHEN
+        assertThrows(LowBalanceException.class, () -> foodDeliveryService.createOrders(customers),
+                "createOrders did not throw LowBalanceException for a customer who cannot pay.");
+
+        // THEN
+        assertAll("The portions reserved by the rolled back batch were not given back",
+                () -> assertEquals(5, inventoryService.getAvailable(1L), "Wrong number of portions available."),
+                () -> assertTrue(customers.get(0).getCart().getReservations().isEmpty(), "The cart still holds a reservation.")
+        );
+    }
+
+    @Test
+    @DisplayName("a restock should reset the available portions, keeping the ones reserved by carts")
+    public void testRestockShouldResetTheAvailablePortionsKeepingReservations() {
+        // GIVEN
+        Food fideua = foodRepository.findById(1L).get();
+        Customer customer = getCustomerWithCart(SMITH_CUSTOMER_ID, getEmptyCart());
+        foodDeliveryService.updateCart(customer, fideua, 2);
+
+        // WHEN
+        fideua.setStock(50L);
+        foodRepository.save(fideua);
+
+        // THEN
+        assertEquals(48, inventoryService.getAvailable(1L), "Wrong number of portions available after the restock.");
+    }
+
+    @Test
+    @DisplayName("a food loaded before the sold portions were reconciled should not be saved over the reconciled stock")
+    public void testStaleFoodShouldNotOverwriteTheReconciledStock() {
+        // GIVEN
+        Food staleFideua = foodRepository.findById(1L).get();
+        foodDeliveryService.createOrder(getCustomerWithCart(SMITH_CUSTOMER_ID, getOneItemCartWithOneFideua()));
+        inventoryService.reconcile();
+
+        // WHEN
+        staleFideua.setName("Fideua negra");
+
+        // THEN
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> foodRepository.save(staleFideua),
+                "A food loaded before the reconcile was saved over the decremented stock.");
+        assertEquals(199L, foodRepository.findById(1L).get().getStock(), "Wrong stock after the reconcile.");
+    }
+
+    @Test
+    @DisplayName("updateCart should throw OutOfStockException when fewer portions are left than requested")
+    public void testUpdateCartShouldThrowOutOfStockExceptionWhenTheStockIsTooLow() {
+        // GIVEN
+        Food fideua = foodRepository.findById(1L).get();
+        fideua.setStock(1L);
+        foodRepository.save(fideua);
+        Customer customer = getCustomerWithCart(SMITH_CUSTOMER_ID, getEmptyCart());
+
+        // WHEN
+
+        // THEN
+        assertThrows(OutOfStockException.class, () -> foodDeliveryService.updateCart(customer, fideua, 2),
+                "updateCart did not throw OutOfStockException for 2 portions with 1 left in stock.");
+        assertTrue(customer.getCart().isEmpty(), "The cart was changed although the portions could not be reserved.");
+    }
+
     @Test
     @DisplayName("list all available foods")
     void testListAllFoodsShouldListAllFoods() throws Exception {
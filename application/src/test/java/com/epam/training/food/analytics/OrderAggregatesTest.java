@@ -0,0 +1,114 @@
+package com.epam.training.food.analytics;
+
+import com.epam.training.food.domain.CustomerSpendingDTO;
+import com.epam.training.food.domain.Money;
+import com.epam.training.food.domain.OrderDTO;
+import com.epam.training.food.domain.OrderItemDTO;
+import com.epam.training.food.event.OrderCreatedEvent;
+import com.epam.training.food.repository.OrderRepository;
+import com.epam.training.food.service.OrderPlacementLock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderAggregatesTest {
+
+    private final OrderPlacementLock orderPlacementLock = new OrderPlacementLock();
+    private OrderRepository orderRepository;
+    private OrderAggregates orderAggregates;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = mock(OrderRepository.class);
+        when(orderRepository.findMaxOrderId()).thenReturn(1L);
+        when(orderRepository.sumSpendingByCustomer(1L))
+                .thenReturn(List.of(new CustomerSpendingDTO(1L, 1, new BigDecimal("15.00"))));
+        orderAggregates = new OrderAggregates(orderRepository, orderPlacementLock);
+    }
+
+    @Test
+    @DisplayName("a rebuild should wait for the running order transactions and count a lower id that commits late")
+    void testRebuildShouldWaitForRunningOrderTransactions() throws Exception {
+        // GIVEN
+        CountDownLatch placing = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Void> placement = CompletableFuture.runAsync(() -> orderPlacementLock.placing(() -> {
+            placing.countDown();
+            await(commit);
+            //order 2 committed by now, after order 3 became visible
+            when(orderRepository.findMaxOrderId()).thenReturn(3L);
+            when(orderRepository.sumSpendingByCustomer(3L))
+                    .thenReturn(List.of(new CustomerSpendingDTO(1L, 3, new BigDecimal("45.00"))));
+            return null;
+        }));
+        placing.await();
+
+        // WHEN
+        Thread rebuild = new Thread(orderAggregates::rebuild);
+        rebuild.start();
+        //parked on the lock, not done
+        while (rebuild.getState() != Thread.State.WAITING && rebuild.isAlive()) {
+            Thread.onSpinWait();
+        }
+        boolean rebuiltDuringPlacement = !rebuild.isAlive();
+        commit.countDown();
+        placement.get(5, TimeUnit.SECONDS);
+        rebuild.join(TimeUnit.SECONDS.toMillis(5));
+        orderAggregates.onOrderCreated(new OrderCreatedEvent(order(2L)));
+
+        // THEN
+        assertAll("The rebuild did not wait for the running order transaction",
+                () -> assertFalse(rebuiltDuringPlacement, "The rebuild ran while an order transaction was running."),
+                () -> assertEquals(3, orderAggregates.getCustomerSpending(1L).orderCount(), "Wrong number of orders counted."),
+                () -> assertEquals(new BigDecimal("45.00"), orderAggregates.getCustomerSpending(1L).totalSpent(),
+                        "The late order was counted twice or not at all.")
+        );
+    }
+
+    @Test
+    @DisplayName("only the refresh of the root context should rebuild the totals")
+    void testRefreshOfAChildContextShouldNotRebuild() {
+        // GIVEN
+        ApplicationContext root = mock(ApplicationContext.class);
+        ApplicationContext child = mock(ApplicationContext.class);
+        when(child.getParent()).thenReturn(root);
+
+        // WHEN
+        orderAggregates.onContextRefreshed(new ContextRefreshedEvent(child));
+
+        // THEN
+        verify(orderRepository, never()).findMaxOrderId();
+        orderAggregates.onContextRefreshed(new ContextRefreshedEvent(root));
+        assertEquals(1, orderAggregates.getCustomerSpending(1L).orderCount(), "The refresh of the root context did not rebuild.");
+    }
+
+    private static OrderDTO order(Long orderId) {
+        return new OrderDTO(orderId, 1L, List.of(new OrderItemDTO(1L, "Fideua", 1, new BigDecimal("15.00"))),
+                Money.toBigDecimal(1500), LocalDateTime.of(2024, 1, 1, 12, 0));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
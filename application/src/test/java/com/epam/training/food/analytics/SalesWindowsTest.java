@@ -0,0 +1,109 @@
+package com.epam.training.food.analytics;
+
+import com.epam.training.food.domain.FoodSalesDTO;
+import com.epam.training.food.domain.Money;
+import com.epam.training.food.domain.OrderDTO;
+import com.epam.training.food.domain.OrderItemDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SalesWindowsTest {
+
+    //on a bucket boundary of every window
+    private static final long START_MILLIS = Duration.ofDays(20000).toMillis();
+    private static final long WINDOW_MILLIS = SalesWindow.LAST_5_MINUTES.getLength().toMillis();
+    private static final long BUCKET_MILLIS = SalesWindow.LAST_5_MINUTES.getBucketWidth().toMillis();
+
+    private final SalesWindows salesWindows = new SalesWindows(8);
+
+    @Test
+    @DisplayName("sales should drop out of the window once their bucket is older than the window")
+    void testSalesShouldExpireWithTheirBucket() {
+        // GIVEN
+        salesWindows.record(order(1L, "Fideua", 5), START_MILLIS);
+        salesWindows.record(order(1L, "Fideua", 2), START_MILLIS + WINDOW_MILLIS / 2);
+
+        // WHEN
+        List<FoodSalesDTO> lastBucketInWindow = salesWindows.getSales(SalesWindow.LAST_5_MINUTES, START_MILLIS + WINDOW_MILLIS - 1);
+        List<FoodSalesDTO> firstBucketExpired = salesWindows.getSales(SalesWindow.LAST_5_MINUTES, START_MILLIS + WINDOW_MILLIS);
+        List<FoodSalesDTO> allExpired = salesWindows.getSales(SalesWindow.LAST_5_MINUTES, START_MILLIS + WINDOW_MILLIS * 3 / 2);
+
+        // THEN
+        assertAll("The sales did not expire with their buckets",
+                () -> assertEquals(7, lastBucketInWindow.get(0).pieces(), "Wrong pieces while both sales are in the window."),
+                () -> assertEquals(new BigDecimal("7.00"), lastBucketInWindow.get(0).revenue(), "Wrong revenue while both sales are in the window."),
+                () -> assertEquals(2, firstBucketExpired.get(0).pieces(), "Wrong pieces after the first bucket expired."),
+                () -> assertTrue(allExpired.isEmpty(), "Sales left after every bucket expired: " + allExpired),
+                () -> assertEquals(7, salesWindows.getSales(SalesWindow.LAST_HOUR, START_MILLIS + WINDOW_MILLIS).get(0).pieces(),
+                        "The longer window lost sales that are still inside it.")
+        );
+    }
+
+    @Test
+    @DisplayName("the ring should start clean after a gap longer than the window and reuse every bucket")
+    void testRingShouldWrapAfterAGapLongerThanTheWindow() {
+        // GIVEN
+        //one sale in every bucket of the ring
+        for (long bucket = 0; bucket < WINDOW_MILLIS / BUCKET_MILLIS; bucket++) {
+            salesWindows.record(order(1L, "Fideua", 1), START_MILLIS + bucket * BUCKET_MILLIS);
+        }
+        long afterGap = START_MILLIS + Duration.ofDays(3).toMillis() + BUCKET_MILLIS / 2;
+
+        // WHEN
+        List<FoodSalesDTO> beforeGap = salesWindows.getSales(SalesWindow.LAST_5_MINUTES, START_MILLIS + WINDOW_MILLIS - 1);
+        salesWindows.record(order(2L, "Paella", 4), afterGap);
+        List<FoodSalesDTO> sales = salesWindows.getSales(SalesWindow.LAST_5_MINUTES, afterGap);
+        List<FoodSalesDTO> oneWindowLater = salesWindows.getSales(SalesWindow.LAST_5_MINUTES, afterGap + WINDOW_MILLIS);
+
+        // THEN
+        assertAll("The ring did not wrap cleanly after the gap",
+                () -> assertEquals(WINDOW_MILLIS / BUCKET_MILLIS, beforeGap.get(0).pieces(), "Wrong pieces with every bucket filled."),
+                () -> assertEquals(1, sales.size(), "Sales from before the gap are still in the window: " + sales),
+                () -> assertEquals(2L, sales.get(0).foodId(), "Wrong dish sold after the gap."),
+                () -> assertEquals(4, sales.get(0).pieces(), "Wrong pieces sold after the gap."),
+                () -> assertTrue(oneWindowLater.isEmpty(), "Sales left one window after the last sale: " + oneWindowLater)
+        );
+    }
+
+    @Test
+    @DisplayName("getTopDishes should return the dishes with the most pieces sold, best first")
+    void testGetTopDishesShouldReturnTheBestSellersInOrder() {
+        // GIVEN
+        salesWindows.record(order(1L, "Fideua", 3), START_MILLIS);
+        salesWindows.record(order(2L, "Paella", 7), START_MILLIS);
+        salesWindows.record(order(3L, "Gazpacho", 5), START_MILLIS + BUCKET_MILLIS);
+        salesWindows.record(order(4L, "Tortilla", 1), START_MILLIS + BUCKET_MILLIS);
+        salesWindows.record(order(1L, "Fideua", 3), START_MILLIS + 2 * BUCKET_MILLIS);
+
+        // WHEN
+        List<FoodSalesDTO> topTwo = salesWindows.getTopDishes(SalesWindow.LAST_5_MINUTES, 2, START_MILLIS + 2 * BUCKET_MILLIS);
+        List<FoodSalesDTO> all = salesWindows.getTopDishes(SalesWindow.LAST_5_MINUTES, Integer.MAX_VALUE, START_MILLIS + 2 * BUCKET_MILLIS);
+
+        // THEN
+        assertAll("The top dishes are not the best sellers in order",
+                () -> assertEquals(List.of(2L, 1L), foodIds(topTwo), "Wrong top two dishes."),
+                () -> assertEquals(List.of(2L, 1L, 3L, 4L), foodIds(all), "Wrong order of all dishes for a limit larger than the menu."),
+                () -> assertEquals(6, all.get(1).pieces(), "Wrong pieces of a dish sold in two buckets.")
+        );
+    }
+
+    private static OrderDTO order(Long foodId, String foodName, int pieces) {
+        long priceCents = pieces * 100L;
+        return new OrderDTO(1L, 1L, List.of(new OrderItemDTO(foodId, foodName, pieces, Money.toBigDecimal(priceCents))),
+                Money.toBigDecimal(priceCents), LocalDateTime.of(2024, 1, 1, 12, 0));
+    }
+
+    private static List<Long> foodIds(List<FoodSalesDTO> sales) {
+        return sales.stream().map(FoodSalesDTO::foodId).collect(Collectors.toList());
+    }
+}
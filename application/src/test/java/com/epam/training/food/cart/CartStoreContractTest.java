@@ -0,0 +1,106 @@
+package com.epam.training.food.cart;
+
+import com.epam.training.food.domain.Cart;
+import com.epam.training.food.domain.Food;
+import com.epam.training.food.domain.OrderItem;
+import com.epam.training.food.inventory.InventoryService;
+import com.epam.training.food.repository.FoodRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+//the behaviour every CartStore shares, run against each store by its subclass; time only moves through advance
+abstract class CartStoreContractTest {
+
+    static final long STOCK = 10;
+
+    final Food fideua = new Food(1L, "Fideua", new BigDecimal("500"), "Noodle paella", new BigDecimal("15.00"));
+    final AtomicLong nowNanos = new AtomicLong();
+    FoodRepository foodRepository;
+    InventoryService inventoryService;
+
+    //the store reads its time from nowNanos
+    abstract CartStore newStore(Duration idleTtl, int maxCarts) throws IOException;
+
+    @BeforeEach
+    void setUp() {
+        fideua.setStock(STOCK);
+        foodRepository = mock(FoodRepository.class);
+        when(foodRepository.findById(1L)).thenReturn(Optional.of(fideua));
+        when(foodRepository.findAll()).thenReturn(List.of(fideua));
+        inventoryService = new InventoryService(foodRepository, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    @DisplayName("evictIdle should drop the carts idle for longer than the TTL and give their reservations back")
+    void testEvictIdleShouldDropIdleCartsAndReleaseTheirReservations() throws IOException {
+        // GIVEN
+        CartStore store = newStore(Duration.ofMinutes(30), 10);
+        putReservedCart(store, 1L, 3);
+        advance(Duration.ofMinutes(20));
+        putReservedCart(store, 2L, 2);
+        advance(Duration.ofMinutes(15));
+
+        // WHEN
+        int evicted = store.evictIdle();
+
+        // THEN
+        assertAll("The idle cart was not the only one evicted with its reservations",
+                () -> assertEquals(1, evicted, "Wrong number of carts evicted."),
+                () -> assertNull(store.remove(1L), "The idle cart is still stored."),
+                () -> assertNotNull(store.remove(2L), "A cart used within the TTL was evicted."),
+                () -> assertEquals(STOCK - 2, inventoryService.getAvailable(1L), "Only the reservation of the idle cart should have been given back.")
+        );
+    }
+
+    @Test
+    @DisplayName("a new cart at the cap should evict the least recently used cart and give its reservations back")
+    void testNewCartAtTheCapShouldEvictTheLeastRecentlyUsedCart() throws IOException {
+        // GIVEN
+        CartStore store = newStore(Duration.ofMinutes(30), 2);
+        putReservedCart(store, 1L, 3);
+        advance(Duration.ofSeconds(1));
+        putReservedCart(store, 2L, 2);
+        advance(Duration.ofSeconds(1));
+        store.getCart(1L);
+        advance(Duration.ofSeconds(1));
+
+        // WHEN
+        store.getCart(3L);
+
+        // THEN
+        assertAll("The least recently used cart was not the one evicted",
+                () -> assertEquals(2, store.size(), "Wrong number of carts stored at the cap."),
+                () -> assertNull(store.remove(2L), "The least recently used cart is still stored."),
+                () -> assertNotNull(store.remove(1L), "The recently used cart was evicted."),
+                () -> assertEquals(STOCK - 3, inventoryService.getAvailable(1L), "Only the reservation of the evicted cart should have been given back.")
+        );
+    }
+
+    void advance(Duration duration) {
+        nowNanos.addAndGet(duration.toNanos());
+    }
+
+    void putReservedCart(CartStore store, long customerId, int pieces) {
+        Cart cart = store.getCart(customerId);
+        cart.putItem(new OrderItem(fideua, pieces, new BigDecimal("15.00").multiply(BigDecimal.valueOf(pieces))));
+        cart.setPrice(new BigDecimal("15.00").multiply(BigDecimal.valueOf(pieces)));
+        inventoryService.reserve(cart, fideua, pieces);
+        store.putCart(customerId, cart);
+    }
+}
@@ -0,0 +1,13 @@
+package com.epam.training.food.cart;
+
+import com.epam.training.food.service.CustomerLocks;
+
+import java.time.Duration;
+
+class InMemoryCartStoreTest extends CartStoreContractTest {
+
+    @Override
+    CartStore newStore(Duration idleTtl, int maxCarts) {
+        return new InMemoryCartStore(new CustomerLocks(), inventoryService, idleTtl, maxCarts, nowNanos::get);
+    }
+}
@@ -0,0 +1,81 @@
+package com.epam.training.food.cart;
+
+import com.epam.training.food.cache.MenuCache;
+import com.epam.training.food.domain.Cart;
+import com.epam.training.food.service.CustomerLocks;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedCartStoreTest extends CartStoreContractTest {
+
+    private static final int SLOT_SIZE = 256;
+
+    private MenuCache menuCache;
+
+    @BeforeEach
+    void setUpMenuCache() {
+        menuCache = new MenuCache(foodRepository, Duration.ofMinutes(5), 1000);
+    }
+
+    @Override
+    CartStore newStore(Duration idleTtl, int maxCarts) throws IOException {
+        return store(idleTtl, maxCarts, SLOT_SIZE, "");
+    }
+
+    @Test
+    @DisplayName("carts of a mapped file should be recovered on reopen, without their reservations")
+    void testCartsOfAMappedFileShouldBeRecoveredOnReopen(@TempDir Path directory) throws IOException {
+        // GIVEN
+        String path = directory.resolve("carts").toString();
+        putReservedCart(store(Duration.ofMinutes(30), 10, SLOT_SIZE, path), 7L, 2);
+
+        // WHEN
+        MappedCartStore reopened = store(Duration.ofMinutes(30), 10, SLOT_SIZE, path);
+
+        // THEN
+        Cart cart = reopened.getCart(7L);
+        assertAll("The cart was not recovered from the mapped file",
+                () -> assertEquals(1, reopened.size(), "Wrong number of carts recovered."),
+                () -> assertEquals(1, cart.getOrderItems().size(), "Wrong number of items recovered."),
+                () -> assertEquals(2, cart.getOrderItems().get(0).getPieces(), "Wrong pieces recovered."),
+                () -> assertEquals(new BigDecimal("30.00"), cart.getPrice(), "Wrong price recovered."),
+                () -> assertTrue(cart.getReservations().isEmpty(), "Reservations were recovered although the stock was not.")
+        );
+    }
+
+    @Test
+    @DisplayName("a mapped file written with another layout should be refused on open")
+    void testMappedFileWithAnotherLayoutShouldBeRefused(@TempDir Path directory) throws IOException {
+        // GIVEN
+        String path = directory.resolve("carts").toString();
+        putReservedCart(store(Duration.ofMinutes(30), 10, SLOT_SIZE, path), 7L, 2);
+
+        // WHEN
+
+        // THEN
+        assertAll("The mapped file was opened with another layout",
+                () -> assertThrows(IllegalStateException.class, () -> store(Duration.ofMinutes(30), 10, SLOT_SIZE * 2, path),
+                        "A different slot size was accepted."),
+                () -> assertThrows(IllegalStateException.class, () -> store(Duration.ofMinutes(30), 20, SLOT_SIZE, path),
+                        "A different number of carts was accepted.")
+        );
+    }
+
+    private MappedCartStore store(Duration idleTtl, int maxCarts, int slotSize, String path) throws IOException {
+        return new MappedCartStore(new CustomerLocks(), inventoryService, menuCache, idleTtl, maxCarts, slotSize, path,
+                () -> TimeUnit.NANOSECONDS.toMillis(nowNanos.get()));
+    }
+}
@@ -0,0 +1,91 @@
+package com.epam.training.food.data;
+
+import com.epam.training.food.domain.Money;
+import com.epam.training.food.domain.OrderDTO;
+import com.epam.training.food.domain.OrderItemDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ColumnarExportFormatTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 12, 0, 0, 500_000_000);
+
+    private final ColumnarExportFormat format = new ColumnarExportFormat();
+
+    @Test
+    @DisplayName("an export without orders should read back as no orders")
+    void testEmptyExportShouldReadBackAsNoOrders() throws IOException {
+        // GIVEN
+        List<OrderDTO> orders = List.of();
+
+        // WHEN
+        List<OrderDTO> read = roundTrip(orders);
+
+        // THEN
+        assertEquals(orders, read, "The empty export did not read back empty.");
+    }
+
+    @Test
+    @DisplayName("orders spanning several blocks should read back unchanged, with names first seen in later blocks")
+    void testExportShouldRoundTripOrdersSpanningSeveralBlocks() throws IOException {
+        // GIVEN
+        //every block adds new names and reuses the names of the blocks before it
+        List<OrderDTO> orders = new ArrayList<>();
+        for (long orderId = 1; orderId <= ColumnarExportFormat.BLOCK_SIZE * 2L + 10; orderId++) {
+            long block = (orderId - 1) / ColumnarExportFormat.BLOCK_SIZE;
+            List<OrderItemDTO> items = List.of(
+                    new OrderItemDTO(1L, "Paella", 1, Money.toBigDecimal(1300)),
+                    new OrderItemDTO(10 + block, "Dish of block " + block, (int) (orderId % 7) + 1, Money.toBigDecimal(orderId)));
+            orders.add(new OrderDTO(orderId * 3, orderId % 5, items, Money.toBigDecimal(1300 + orderId), START.plusSeconds(orderId * 61)));
+        }
+
+        // WHEN
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportSummary summary = format.write(orders.stream(), out);
+        List<OrderDTO> read = read(out.toByteArray());
+
+        // THEN
+        assertAll("The multi-block export did not round-trip",
+                () -> assertEquals(orders.size() * 2L, summary.rows(), "Wrong number of item rows reported."),
+                () -> assertEquals(out.size(), summary.bytes(), "Wrong number of bytes reported."),
+                () -> assertEquals(orders, read, "The orders read back differ from the exported ones.")
+        );
+    }
+
+    @Test
+    @DisplayName("food names longer than 65535 UTF-8 bytes should read back unchanged")
+    void testExportShouldRoundTripVeryLongFoodNames() throws IOException {
+        // GIVEN
+        String name = "é".repeat(40_000);
+        List<OrderDTO> orders = List.of(new OrderDTO(1L, 1L, List.of(new OrderItemDTO(1L, name, 1, Money.toBigDecimal(100))),
+                Money.toBigDecimal(100), START));
+
+        // WHEN
+        List<OrderDTO> read = roundTrip(orders);
+
+        // THEN
+        assertEquals(orders, read, "The order with a very long food name did not round-trip.");
+    }
+
+    private List<OrderDTO> roundTrip(List<OrderDTO> orders) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        format.write(orders.stream(), out);
+        return read(out.toByteArray());
+    }
+
+    private static List<OrderDTO> read(byte[] export) throws IOException {
+        List<OrderDTO> read = new ArrayList<>();
+        new ColumnarOrderReader().read(new ByteArrayInputStream(export), read::add);
+        return read;
+    }
+}
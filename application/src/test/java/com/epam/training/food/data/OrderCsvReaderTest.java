@@ -0,0 +1,76 @@
+package com.epam.training.food.data;
+
+import com.epam.training.food.domain.Money;
+import com.epam.training.food.domain.OrderDTO;
+import com.epam.training.food.domain.OrderItemDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OrderCsvReaderTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private final OrderCsvReader reader = new OrderCsvReader();
+
+    @Test
+    @DisplayName("names with line breaks, quotes and commas should read back unchanged from what OrderWriter wrote")
+    void testNamesWithLineBreaksShouldRoundTripThroughOrderWriter() throws IOException {
+        // GIVEN
+        List<OrderDTO> orders = List.of(
+                new OrderDTO(1L, 2L, List.of(
+                        new OrderItemDTO(null, "Fideua\nwith \"alioli\"", 1, Money.toBigDecimal(1500)),
+                        new OrderItemDTO(null, "Paella, mixta\r\n", 2, Money.toBigDecimal(2600))),
+                        Money.toBigDecimal(4100), CREATED),
+                new OrderDTO(2L, 3L, List.of(new OrderItemDTO(null, "\rGazpacho\n\n", 1, Money.toBigDecimal(900))),
+                        Money.toBigDecimal(900), CREATED.plusMinutes(5)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new OrderWriter().writeOrdersStreaming(orders.stream(), out);
+
+        // WHEN
+        List<OrderDTO> read = new ArrayList<>();
+        List<String> malformed = new ArrayList<>();
+        long count = reader.read(new ByteArrayInputStream(out.toByteArray()), read::add, malformed::add);
+
+        // THEN
+        assertAll("The orders did not read back unchanged",
+                () -> assertEquals(List.of(), malformed, "Rows written by OrderWriter were reported as malformed."),
+                () -> assertEquals(2, count, "Wrong number of orders read."),
+                () -> assertEquals(orders, read, "The orders read back differ from the ones written.")
+        );
+    }
+
+    @Test
+    @DisplayName("a malformed row should be reported with the line it starts on, counting the lines inside quoted fields")
+    void testMalformedRowShouldBeReportedWithItsFirstLine() throws IOException {
+        // GIVEN
+        String csv = "1,2,\"Fideua\r\nwith alioli\",1,15.00,01/01/2024 12:00,15.00\r\n"
+                + "\n"
+                + "2,2,Paella,one,13.00,01/01/2024 12:05,13.00\n"
+                + "3,2,\"Gazpacho,1,9.00,01/01/2024 12:10,9.00\n";
+
+        // WHEN
+        List<OrderDTO> read = new ArrayList<>();
+        List<String> malformed = new ArrayList<>();
+        reader.read(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), read::add, malformed::add);
+
+        // THEN
+        assertAll("The rows were not read or reported correctly",
+                () -> assertEquals(1, read.size(), "Wrong number of orders read."),
+                () -> assertEquals("Fideua\r\nwith alioli", read.get(0).orderItemDTOList().get(0).foodName(), "Wrong name read."),
+                () -> assertEquals(2, malformed.size(), "Wrong number of malformed rows: " + malformed),
+                () -> assertEquals("line 4: For input string: \"one\"", malformed.get(0), "Wrong report of the malformed row."),
+                () -> assertEquals("line 5: unterminated quoted field", malformed.get(1), "Wrong report of the unterminated row.")
+        );
+    }
+}
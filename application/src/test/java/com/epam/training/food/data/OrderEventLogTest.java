@@ -0,0 +1,57 @@
+package com.epam.training.food.data;
+
+import com.epam.training.food.domain.Money;
+import com.epam.training.food.domain.OrderDTO;
+import com.epam.training.food.domain.OrderItemDTO;
+import com.epam.training.food.event.OrderCreatedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OrderEventLogTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Test
+    @DisplayName("orders published before and after stop should all end up in the log")
+    void testOrdersPublishedAfterStopShouldBeAppended(@TempDir Path directory) throws IOException, InterruptedException {
+        // GIVEN
+        Path path = directory.resolve("orders");
+        OrderEventLog eventLog = new OrderEventLog(new OrderWriter(), path.toString(), false, 10, 10, Duration.ofMillis(100));
+        eventLog.start();
+        eventLog.onOrderCreated(new OrderCreatedEvent(order(1L)));
+
+        // WHEN
+        eventLog.stop();
+        eventLog.onOrderCreated(new OrderCreatedEvent(order(2L)));
+        eventLog.onOrderCreated(new OrderCreatedEvent(order(3L)));
+
+        // THEN
+        List<OrderDTO> read = new ArrayList<>();
+        List<String> malformed = new ArrayList<>();
+        try (InputStream in = Files.newInputStream(path)) {
+            new OrderCsvReader().read(in, read::add, malformed::add);
+        }
+        assertAll("Orders published after stop are missing from the log",
+                () -> assertEquals(List.of(), malformed, "The log holds malformed rows."),
+                () -> assertEquals(List.of(order(1L), order(2L), order(3L)), read, "Wrong orders in the log.")
+        );
+    }
+
+    private static OrderDTO order(Long orderId) {
+        return new OrderDTO(orderId, 1L, List.of(new OrderItemDTO(null, "Fideua", 1, Money.toBigDecimal(1500))),
+                Money.toBigDecimal(1500), CREATED.plusMinutes(orderId));
+    }
+}
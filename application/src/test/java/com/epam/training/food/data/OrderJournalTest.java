@@ -0,0 +1,136 @@
+package com.epam.training.food.data;
+
+import com.epam.training.food.domain.Money;
+import com.epam.training.food.domain.OrderDTO;
+import com.epam.training.food.domain.OrderItemDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderJournalTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @Test
+    @DisplayName("replay should return every appended order in order, across segments")
+    void testReplayShouldReturnEveryAppendedOrderAcrossSegments(@TempDir Path directory) throws IOException {
+        // GIVEN
+        List<OrderDTO> orders = orders(1, 200, "Paella");
+        try (OrderJournal journal = new OrderJournal(directory.toString(), SEGMENT_SIZE)) {
+            for (OrderDTO order : orders) {
+                journal.append(order);
+            }
+        }
+
+        // WHEN
+        List<OrderDTO> replayed = replay(directory);
+
+        // THEN
+        assertAll("The journal did not replay what was appended",
+                () -> assertTrue(OrderJournal.segments(directory).size() > 1, "The orders did not span several segments."),
+                () -> assertEquals(orders, replayed, "The replayed orders differ from the appended ones.")
+        );
+    }
+
+    @Test
+    @DisplayName("a torn record left by a crash should be skipped after the journal is reopened and rolled over")
+    void testReplayShouldSkipATornRecordAfterReopenAndRoll(@TempDir Path directory) throws IOException {
+        // GIVEN
+        List<OrderDTO> beforeCrash = orders(1, 3, "Paella");
+        try (OrderJournal journal = new OrderJournal(directory.toString(), SEGMENT_SIZE)) {
+            for (OrderDTO order : beforeCrash) {
+                journal.append(order);
+            }
+        }
+        //a record as long as the rest of the segment whose header made it to disk but whose payload did not
+        writeTornRecord(OrderJournal.segmentPath(directory, 1), endOfRecords(beforeCrash));
+
+        // WHEN
+        List<OrderDTO> afterCrash = orders(4, 100, "Fideua");
+        try (OrderJournal journal = new OrderJournal(directory.toString(), SEGMENT_SIZE)) {
+            for (OrderDTO order : afterCrash) {
+                journal.append(order);
+            }
+        }
+        List<OrderDTO> replayed = replay(directory);
+
+        // THEN
+        List<OrderDTO> expected = new ArrayList<>(beforeCrash);
+        expected.addAll(afterCrash);
+        assertAll("The journal did not recover from the torn record",
+                () -> assertTrue(OrderJournal.segments(directory).size() > 1, "The journal did not roll to a new segment."),
+                () -> assertEquals(expected, replayed, "The replayed orders differ from the appended ones.")
+        );
+    }
+
+    @Test
+    @DisplayName("food names up to 65535 UTF-8 bytes should round-trip and longer ones should be rejected")
+    void testAppendShouldKeepLongNamesAndRejectOversizedOnes(@TempDir Path directory) throws IOException {
+        // GIVEN
+        OrderDTO longName = order(1, "x".repeat(40_000));
+        OrderDTO oversizedName = order(2, "x".repeat(OrderJournalCodec.MAX_NAME_BYTES + 1));
+
+        // WHEN
+        try (OrderJournal journal = new OrderJournal(directory.toString(), 1 << 20)) {
+            journal.append(longName);
+            assertThrows(IllegalArgumentException.class, () -> journal.append(oversizedName),
+                    "A name longer than the length field was not rejected.");
+        }
+
+        // THEN
+        assertEquals(List.of(longName), replay(directory), "The order with a long food name did not round-trip.");
+    }
+
+    private static List<OrderDTO> replay(Path directory) throws IOException {
+        List<OrderDTO> replayed = new ArrayList<>();
+        new OrderJournalReader(directory).replay(replayed::add);
+        return replayed;
+    }
+
+    private static int endOfRecords(List<OrderDTO> orders) {
+        int end = 0;
+        for (OrderDTO order : orders) {
+            ByteBuffer payload = ByteBuffer.allocate(OrderJournalCodec.encodedSize(order));
+            OrderJournalCodec.encode(order, payload);
+            end += OrderJournal.HEADER_BYTES + payload.position();
+        }
+        return end;
+    }
+
+    private static void writeTornRecord(Path segment, int position) throws IOException {
+        ByteBuffer torn = ByteBuffer.allocate(SEGMENT_SIZE - position);
+        torn.putInt(torn.capacity()).putInt(0xCAFEBABE);
+        while (torn.hasRemaining()) torn.put((byte) 0x5A);
+        torn.flip();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(torn, position);
+        }
+    }
+
+    private static List<OrderDTO> orders(long firstOrderId, int count, String foodName) {
+        List<OrderDTO> orders = new ArrayList<>();
+        for (long orderId = firstOrderId; orderId < firstOrderId + count; orderId++) {
+            orders.add(order(orderId, foodName));
+        }
+        return orders;
+    }
+
+    private static OrderDTO order(long orderId, String foodName) {
+        List<OrderItemDTO> items = List.of(new OrderItemDTO(2L, foodName, 2, Money.toBigDecimal(2600)));
+        return new OrderDTO(orderId, 1L, items, Money.toBigDecimal(2600), LocalDateTime.of(2024, 1, 1, 12, 0, 0, 123_456_789));
+    }
+}
@@ -0,0 +1,42 @@
+package com.epam.training.food.data;
+
+import com.epam.training.food.domain.Money;
+import com.epam.training.food.domain.OrderDTO;
+import com.epam.training.food.domain.OrderItemDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OrderWriterTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private final OrderWriter orderWriter = new OrderWriter();
+
+    @Test
+    @DisplayName("streamed rows should be the rows of addOrders, each ended by \\n whatever the platform")
+    void testStreamedRowsShouldMatchAddOrders() throws IOException {
+        // GIVEN
+        List<OrderDTO> orders = List.of(
+                new OrderDTO(1L, 2L, List.of(
+                        new OrderItemDTO(null, "Fideua", 1, Money.toBigDecimal(1500)),
+                        new OrderItemDTO(null, "Paella", 2, Money.toBigDecimal(2600))),
+                        Money.toBigDecimal(4100), CREATED),
+                new OrderDTO(2L, 3L, List.of(new OrderItemDTO(null, "Gazpacho", 1, Money.toBigDecimal(900))),
+                        Money.toBigDecimal(900), CREATED.plusMinutes(5)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // WHEN
+        orderWriter.writeOrdersStreaming(orders.stream(), out);
+
+        // THEN
+        assertEquals(orderWriter.addOrders(orders) + "\n", out.toString(StandardCharsets.UTF_8), "The streamed rows differ from addOrders.");
+    }
+}
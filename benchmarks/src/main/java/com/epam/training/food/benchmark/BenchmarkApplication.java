@@ -0,0 +1,12 @@
+package com.epam.training.food.benchmark;
+
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+//the service and persistence beans on an in-memory H2, without the CLI runner of the application module
+@SpringBootApplication(scanBasePackages = "com.epam.training.food")
+@EntityScan("com.epam.training.food.domain")
+@EnableJpaRepositories("com.epam.training.food.repository")
+public class BenchmarkApplication {
+}
@@ -0,0 +1,53 @@
+package com.epam.training.food.benchmark;
+
+import com.epam.training.food.domain.Cart;
+import com.epam.training.food.domain.Customer;
+import com.epam.training.food.domain.Food;
+import com.epam.training.food.domain.Money;
+import com.epam.training.food.domain.OrderItem;
+import com.epam.training.food.utility.ShoppingStateUtility;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CartBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    private int cartSize;
+
+    private final ShoppingStateUtility shoppingStateUtility = new ShoppingStateUtility();
+    private Customer customer;
+    private OrderItem[] updates;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        customer = new Customer.Builder()
+                .id(1L)
+                .balance(new BigDecimal("1000000000.00"))
+                .cart(Cart.getEmptyCart())
+                .build();
+        updates = new OrderItem[cartSize];
+
+        for (int i = 0; i < cartSize; i++) {
+            Food food = new Food((long) i, "Food " + i, new BigDecimal("100.00"), "benchmark food", new BigDecimal("9.99"));
+            customer.getCart().putItem(new OrderItem(food, 1, food.getPriceCents()));
+            updates[i] = new OrderItem(food, 2, Money.times(food.getPriceCents(), 2));
+        }
+    }
+
+    //replaces one existing item per call, walking the whole cart so every position is exercised
+    @Benchmark
+    public Cart updateItem() {
+        shoppingStateUtility.updateItem(customer, updates[cursor]);
+        cursor = cursor + 1 == cartSize ? 0 : cursor + 1;
+        return customer.getCart();
+    }
+}
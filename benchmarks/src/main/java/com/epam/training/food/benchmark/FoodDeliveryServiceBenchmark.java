@@ -0,0 +1,73 @@
+package com.epam.training.food.benchmark;
+
+import com.epam.training.food.domain.Cart;
+import com.epam.training.food.domain.Customer;
+import com.epam.training.food.domain.Food;
+import com.epam.training.food.domain.Order;
+import com.epam.training.food.repository.CustomerRepository;
+import com.epam.training.food.service.DefaultFoodDeliveryService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FoodDeliveryServiceBenchmark {
+    private static final long BENCH_CUSTOMER_ID = 1L;
+
+    private ConfigurableApplicationContext context;
+    private DefaultFoodDeliveryService foodDeliveryService;
+    private CustomerRepository customerRepository;
+    private List<Food> menu;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = new SpringApplicationBuilder(BenchmarkApplication.class).run();
+        foodDeliveryService = context.getBean(DefaultFoodDeliveryService.class);
+        customerRepository = context.getBean(CustomerRepository.class);
+        menu = foodDeliveryService.listAllFood();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Shopper {
+        Customer customer;
+        int cursor;
+
+        @Setup(Level.Iteration)
+        public void loadCustomer(FoodDeliveryServiceBenchmark benchmark) {
+            customer = benchmark.customerRepository.findById(BENCH_CUSTOMER_ID).orElseThrow();
+            customer.setCart(Cart.getEmptyCart());
+        }
+
+        Food nextFood(List<Food> menu) {
+            cursor = cursor + 1 == menu.size() ? 0 : cursor + 1;
+            return menu.get(cursor);
+        }
+    }
+
+    @Benchmark
+    public Cart updateCart(Shopper shopper) {
+        foodDeliveryService.updateCart(shopper.customer, shopper.nextFood(menu), 2);
+        return shopper.customer.getCart();
+    }
+
+    //one single-item order per call, persisted to the in-memory H2 database
+    @Benchmark
+    public Order createOrder(Shopper shopper) {
+        shopper.customer.setCart(Cart.getEmptyCart());
+        foodDeliveryService.updateCart(shopper.customer, shopper.nextFood(menu), 1);
+        return foodDeliveryService.createOrder(shopper.customer);
+    }
+}
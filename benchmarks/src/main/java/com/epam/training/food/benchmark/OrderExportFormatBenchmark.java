@@ -0,0 +1,60 @@
+package com.epam.training.food.benchmark;
+
+import com.epam.training.food.data.ColumnarExportFormat;
+import com.epam.training.food.data.CsvExportFormat;
+import com.epam.training.food.data.ExportSummary;
+import com.epam.training.food.data.GzipCsvExportFormat;
+import com.epam.training.food.data.OrderExportFormat;
+import com.epam.training.food.data.OrderExportFormats;
+import com.epam.training.food.data.OrderWriter;
+import com.epam.training.food.domain.OrderDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//export time per format; the exported size is printed once per trial
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class OrderExportFormatBenchmark {
+
+    @Param({"csv", "csv-gzip", "columnar"})
+    private String format;
+
+    @Param({"1000000"})
+    private int rows;
+
+    private OrderExportFormat exportFormat;
+    private List<OrderDTO> orders;
+    private Path outputFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        OrderWriter orderWriter = new OrderWriter();
+        exportFormat = new OrderExportFormats(List.of(new CsvExportFormat(orderWriter),
+                new GzipCsvExportFormat(orderWriter), new ColumnarExportFormat())).get(format);
+        orders = OrderWriterBenchmark.createOrders(rows);
+        outputFile = Files.createTempFile("orders-benchmark", exportFormat.getFileExtension());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.out.println(format + ": " + Files.size(outputFile) + " bytes for " + rows + " rows");
+        Files.deleteIfExists(outputFile);
+    }
+
+    @Benchmark
+    public ExportSummary write() throws IOException {
+        try (OutputStream out = Files.newOutputStream(outputFile)) {
+            return exportFormat.write(orders.stream(), out);
+        }
+    }
+}
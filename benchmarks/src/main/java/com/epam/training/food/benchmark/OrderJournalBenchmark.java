@@ -0,0 +1,115 @@
+package com.epam.training.food.benchmark;
+
+import com.epam.training.food.data.OrderJournal;
+import com.epam.training.food.data.OrderJournalReader;
+import com.epam.training.food.data.OrderWriter;
+import com.epam.training.food.domain.OrderDTO;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+//the binary journal against the CSV written by OrderWriter, for both writing and reading back
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class OrderJournalBenchmark {
+    private static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    @Param({"100000", "1000000"})
+    private int rows;
+
+    private final OrderWriter orderWriter = new OrderWriter();
+    private List<OrderDTO> orders;
+    private Path csvFile;
+    private Path journalDirectory;
+    private Path writeDirectory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        orders = OrderWriterBenchmark.createOrders(rows);
+        csvFile = Files.createTempFile("orders-benchmark", ".csv");
+        orderWriter.writeOrdersStreaming(orders.stream(), csvFile);
+
+        journalDirectory = Files.createTempDirectory("orders-journal-benchmark");
+        try (OrderJournal journal = new OrderJournal(journalDirectory.toString(), SEGMENT_SIZE)) {
+            for (OrderDTO order : orders) {
+                journal.append(order);
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void createWriteDirectory() throws IOException {
+        writeDirectory = Files.createTempDirectory("orders-journal-write");
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteWriteDirectory() throws IOException {
+        delete(writeDirectory);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(csvFile);
+        delete(journalDirectory);
+    }
+
+    @Benchmark
+    public void writeJournal() throws IOException {
+        try (OrderJournal journal = new OrderJournal(writeDirectory.toString(), SEGMENT_SIZE)) {
+            for (OrderDTO order : orders) {
+                journal.append(order);
+            }
+        }
+    }
+
+    @Benchmark
+    public long replayJournal(Blackhole blackhole) throws IOException {
+        return new OrderJournalReader(journalDirectory).replay(blackhole::consume);
+    }
+
+    //the CSV has to be split and parsed field by field to get the same values back
+    @Benchmark
+    public long readCsv(Blackhole blackhole) throws IOException {
+        long read = 0;
+        try (BufferedReader reader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",");
+                blackhole.consume(Long.parseLong(fields[0]));
+                blackhole.consume(Long.parseLong(fields[1]));
+                blackhole.consume(fields[2]);
+                blackhole.consume(Integer.parseInt(fields[3]));
+                blackhole.consume(new BigDecimal(fields[4]));
+                blackhole.consume(LocalDateTime.parse(fields[5], DATE_TIME_FORMATTER));
+                blackhole.consume(new BigDecimal(fields[6]));
+                read++;
+            }
+        }
+        return read;
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
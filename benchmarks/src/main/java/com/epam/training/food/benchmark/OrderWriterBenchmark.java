@@ -0,0 +1,70 @@
+package com.epam.training.food.benchmark;
+
+import com.epam.training.food.data.ExportSummary;
+import com.epam.training.food.data.OrderWriter;
+import com.epam.training.food.domain.OrderDTO;
+import com.epam.training.food.domain.OrderItemDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class OrderWriterBenchmark {
+    private static final int ITEMS_PER_ORDER = 4;
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    private final OrderWriter orderWriter = new OrderWriter();
+    private List<OrderDTO> orders;
+    private Path outputFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        orders = createOrders(rows);
+        outputFile = Files.createTempFile("orders-benchmark", ".csv");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(outputFile);
+    }
+
+    @Benchmark
+    public String addOrders() {
+        return orderWriter.addOrders(orders);
+    }
+
+    @Benchmark
+    public ExportSummary writeOrdersStreaming() throws IOException {
+        return orderWriter.writeOrdersStreaming(orders.stream(), outputFile);
+    }
+
+    static List<OrderDTO> createOrders(int rows) {
+        List<OrderDTO> orders = new ArrayList<>(rows / ITEMS_PER_ORDER + 1);
+        LocalDateTime timestamp = LocalDateTime.of(2025, 7, 4, 12, 0);
+
+        for (int row = 0, orderId = 1; row < rows; orderId++) {
+            List<OrderItemDTO> items = new ArrayList<>(ITEMS_PER_ORDER);
+            for (int i = 0; i < ITEMS_PER_ORDER && row < rows; i++, row++) {
+                long foodId = 1 + (row % 5);
+                items.add(new OrderItemDTO(foodId, "Food " + foodId, 1 + i, new BigDecimal("12.50")));
+            }
+            orders.add(new OrderDTO((long) orderId, 1L + orderId % 100, items, new BigDecimal("50.00"),
+                    timestamp.plusSeconds(orderId * 7L)));
+        }
+        return orders;
+    }
+}
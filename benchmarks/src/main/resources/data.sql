@@ -0,0 +1,9 @@
+INSERT INTO customer(id, user_name, password, name, balance, version) VALUES
+    (1, 'Bench', 'BenchSecret', 'Bench Customer', 1000000000000, 0, 0);
+
+INSERT INTO food(id, name, description, calorie, price, version) VALUES
+    (1, 'Fideua', 'Noodles gone wild in a seafood fiesta', 558, 15, 0),
+    (2, 'Paella', 'Rice party with a saffron twist', 379, 13, 0),
+    (3, 'Tortilla', 'A scrumptious flat floury flavor', 278, 10, 0),
+    (4, 'Gazpacho', 'Soup''s cold revenge for scorching summers', 162, 8, 0),
+    (5, 'Quesadilla', 'Cheesy tortilla hug with flavorful fillings', 470, 13, 0);
@@ -0,0 +1,164 @@
+package com.epam.training.food.data;
+
+import com.epam.training.food.domain.Money;
+import com.epam.training.food.domain.OrderDTO;
+import com.epam.training.food.domain.OrderItemDTO;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+//binary column blocks read back by ColumnarOrderReader. Every block of up to BLOCK_SIZE orders holds:
+//  the food names first seen in the block as length-prefixed UTF-8 (a dictionary shared by the whole file),
+//  the order columns once per order: id delta, customer id, total cents, timestamp delta and item count,
+//    the item count being the run length of these fields over the item rows,
+//  the item columns: food id, name dictionary index, pieces and price cents.
+//Numbers are zigzag varints; a block of zero orders ends the file.
+@Component
+public class ColumnarExportFormat implements OrderExportFormat {
+    static final int MAGIC = 0x4F524443;
+    static final int VERSION = 2;
+    static final int BLOCK_SIZE = 4096;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Override
+    public String getName() {
+        return "columnar";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return ".ordc";
+    }
+
+    @Override
+    public ExportSummary write(Stream<OrderDTO> orders, OutputStream outputStream) throws IOException {
+        CountingOutputStream counter = new CountingOutputStream(outputStream);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(counter, BUFFER_SIZE));
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<OrderDTO> block = new ArrayList<>(BLOCK_SIZE);
+        long rows = 0;
+        Iterator<OrderDTO> iterator = orders.iterator();
+
+        while (iterator.hasNext()) {
+            OrderDTO order = iterator.next();
+            block.add(order);
+            rows += order.orderItemDTOList().size();
+            if (block.size() == BLOCK_SIZE) {
+                writeBlock(block, dictionary, out);
+                block.clear();
+            }
+        }
+        if (!block.isEmpty()) {
+            writeBlock(block, dictionary, out);
+        }
+        writeVarLong(out, 0);
+        writeVarLong(out, 0);
+        out.flush();
+
+        return new ExportSummary(rows, counter.getCount());
+    }
+
+    private static void writeBlock(List<OrderDTO> block, Map<String, Integer> dictionary, DataOutputStream out) throws IOException {
+        List<String> newNames = new ArrayList<>();
+        for (OrderDTO order : block) {
+            for (OrderItemDTO item : order.orderItemDTOList()) {
+                if (!dictionary.containsKey(item.foodName())) {
+                    dictionary.put(item.foodName(), dictionary.size());
+                    newNames.add(item.foodName());
+                }
+            }
+        }
+        writeVarLong(out, newNames.size());
+        //not writeUTF, which is limited to 65535 bytes
+        for (String name : newNames) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(out, bytes.length);
+            out.write(bytes);
+        }
+
+        writeVarLong(out, block.size());
+        long previousOrderId = 0;
+        for (OrderDTO order : block) {
+            writeVarLong(out, zigzag(order.orderId() - previousOrderId));
+            previousOrderId = order.orderId();
+        }
+        for (OrderDTO order : block) {
+            writeVarLong(out, zigzag(order.customerId()));
+        }
+        for (OrderDTO order : block) {
+            writeVarLong(out, zigzag(Money.toCents(order.price())));
+        }
+        long previousSecond = 0;
+        for (OrderDTO order : block) {
+            long second = order.timestampCreated().toEpochSecond(ZoneOffset.UTC);
+            writeVarLong(out, zigzag(second - previousSecond));
+            writeVarLong(out, order.timestampCreated().getNano());
+            previousSecond = second;
+        }
+        for (OrderDTO order : block) {
+            writeVarLong(out, order.orderItemDTOList().size());
+        }
+
+        for (OrderDTO order : block) {
+            for (OrderItemDTO item : order.orderItemDTOList()) {
+                writeVarLong(out, zigzag(item.foodId()));
+            }
+        }
+        for (OrderDTO order : block) {
+            for (OrderItemDTO item : order.orderItemDTOList()) {
+                writeVarLong(out, dictionary.get(item.foodName()));
+            }
+        }
+        for (OrderDTO order : block) {
+            for (OrderItemDTO item : order.orderItemDTOList()) {
+                writeVarLong(out, zigzag(item.pieces()));
+            }
+        }
+        for (OrderDTO order : block) {
+            for (OrderItemDTO item : order.orderItemDTOList()) {
+                writeVarLong(out, zigzag(Money.toCents(item.price())));
+            }
+        }
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed varint");
+    }
+}
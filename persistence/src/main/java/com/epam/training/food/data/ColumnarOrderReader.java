@@ -0,0 +1,104 @@
+package com.epam.training.food.data;
+
+import com.epam.training.food.domain.Money;
+import com.epam.training.food.domain.OrderDTO;
+import com.epam.training.food.domain.OrderItemDTO;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.epam.training.food.data.ColumnarExportFormat.readVarLong;
+import static com.epam.training.food.data.ColumnarExportFormat.unzigzag;
+
+//reads the blocks written by ColumnarExportFormat back into OrderDTOs
+public class ColumnarOrderReader {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    //returns the number of orders read; the stream is left open
+    public long read(InputStream inputStream, Consumer<OrderDTO> consumer) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream, BUFFER_SIZE));
+        if (in.readInt() != ColumnarExportFormat.MAGIC) throw new IOException("Not a columnar order export");
+        int version = in.readUnsignedByte();
+        if (version != ColumnarExportFormat.VERSION) throw new IOException("Unsupported columnar export version " + version);
+
+        List<String> dictionary = new ArrayList<>();
+        long read = 0;
+        while (true) {
+            int newNames = (int) readVarLong(in);
+            for (int i = 0; i < newNames; i++) {
+                byte[] name = new byte[(int) readVarLong(in)];
+                in.readFully(name);
+                dictionary.add(new String(name, StandardCharsets.UTF_8));
+            }
+            int orderCount = (int) readVarLong(in);
+            if (orderCount == 0) return read;
+
+            readBlock(in, orderCount, dictionary, consumer);
+            read += orderCount;
+        }
+    }
+
+    private static void readBlock(DataInputStream in, int orderCount, List<String> dictionary, Consumer<OrderDTO> consumer) throws IOException {
+        long[] orderIds = new long[orderCount];
+        long[] customerIds = new long[orderCount];
+        long[] priceCents = new long[orderCount];
+        LocalDateTime[] timestamps = new LocalDateTime[orderCount];
+        int[] itemCounts = new int[orderCount];
+
+        long orderId = 0;
+        for (int i = 0; i < orderCount; i++) {
+            orderId += unzigzag(readVarLong(in));
+            orderIds[i] = orderId;
+        }
+        for (int i = 0; i < orderCount; i++) {
+            customerIds[i] = unzigzag(readVarLong(in));
+        }
+        for (int i = 0; i < orderCount; i++) {
+            priceCents[i] = unzigzag(readVarLong(in));
+        }
+        long second = 0;
+        for (int i = 0; i < orderCount; i++) {
+            second += unzigzag(readVarLong(in));
+            timestamps[i] = LocalDateTime.ofEpochSecond(second, (int) readVarLong(in), ZoneOffset.UTC);
+        }
+        int itemTotal = 0;
+        for (int i = 0; i < orderCount; i++) {
+            itemCounts[i] = (int) readVarLong(in);
+            itemTotal += itemCounts[i];
+        }
+
+        long[] foodIds = new long[itemTotal];
+        int[] names = new int[itemTotal];
+        int[] pieces = new int[itemTotal];
+        long[] itemPriceCents = new long[itemTotal];
+        for (int i = 0; i < itemTotal; i++) {
+            foodIds[i] = unzigzag(readVarLong(in));
+        }
+        for (int i = 0; i < itemTotal; i++) {
+            names[i] = (int) readVarLong(in);
+        }
+        for (int i = 0; i < itemTotal; i++) {
+            pieces[i] = (int) unzigzag(readVarLong(in));
+        }
+        for (int i = 0; i < itemTotal; i++) {
+            itemPriceCents[i] = unzigzag(readVarLong(in));
+        }
+
+        int item = 0;
+        for (int i = 0; i < orderCount; i++) {
+            List<OrderItemDTO> items = new ArrayList<>(itemCounts[i]);
+            for (int end = item + itemCounts[i]; item < end; item++) {
+                items.add(new OrderItemDTO(foodIds[item], dictionary.get(names[item]), pieces[item], Money.toBigDecimal(itemPriceCents[item])));
+            }
+            consumer.accept(new OrderDTO(orderIds[i], customerIds[i], items, Money.toBigDecimal(priceCents[i]), timestamps[i]));
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.epam.training.food.data;
+
+import com.epam.training.food.domain.OrderDTO;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
+
+@Component
+public class CsvExportFormat implements OrderExportFormat {
+    private final OrderWriter orderWriter;
+
+    public CsvExportFormat(OrderWriter orderWriter) {
+        this.orderWriter = orderWriter;
+    }
+
+    @Override
+    public String getName() {
+        return "csv";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "";
+    }
+
+    @Override
+    public ExportSummary write(Stream<OrderDTO> orders, OutputStream outputStream) throws IOException {
+        return orderWriter.writeOrdersStreaming(orders, outputStream);
+    }
+}
@@ -0,0 +1,4 @@
+package com.epam.training.food.data;
+
+public record ExportSummary(long rows, long bytes) {
+}
@@ -0,0 +1,41 @@
+package com.epam.training.food.data;
+
+import com.epam.training.food.domain.OrderDTO;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+//the same CSV rows, gzip compressed; the summary counts the compressed bytes
+@Component
+public class GzipCsvExportFormat implements OrderExportFormat {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final OrderWriter orderWriter;
+
+    public GzipCsvExportFormat(OrderWriter orderWriter) {
+        this.orderWriter = orderWriter;
+    }
+
+    @Override
+    public String getName() {
+        return "csv-gzip";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return ".gz";
+    }
+
+    @Override
+    public ExportSummary write(Stream<OrderDTO> orders, OutputStream outputStream) throws IOException {
+        CountingOutputStream out = new CountingOutputStream(outputStream);
+        GZIPOutputStream gzip = new GZIPOutputStream(out, BUFFER_SIZE);
+        ExportSummary csv = orderWriter.writeOrdersStreaming(orders, gzip);
+        gzip.finish();
+        out.flush();
+        return new ExportSummary(csv.rows(), out.getCount());
+    }
+}
@@ -0,0 +1,146 @@
+package com.epam.training.food.data;
+
+import com.epam.training.food.domain.OrderDTO;
+import com.epam.training.food.domain.OrderItemDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+//reads the CSV layout written by OrderWriter back into OrderDTOs; consecutive rows of one order id form one order.
+//The CSV carries no food id, so the items come back with a null foodId and only the food name. A quoted field may
+//span lines, so rows are read record by record rather than line by line
+public class OrderCsvReader {
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private static final int FIELDS = 7;
+
+    //a row that cannot be parsed is passed to malformedRows as "line N: reason", N being the line it starts on, and
+    //skipped; returns the orders read
+    public long read(InputStream inputStream, Consumer<OrderDTO> consumer, Consumer<String> malformedRows) throws IOException {
+        RecordReader reader = new RecordReader(new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)));
+        List<String> fields = new ArrayList<>(FIELDS);
+        OrderDTO current = null;
+        long read = 0;
+        String record;
+
+        while ((record = reader.next()) != null) {
+            if (record.isEmpty()) continue;
+
+            OrderDTO row;
+            try {
+                row = parseRow(record, fields);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                malformedRows.accept("line " + reader.recordLineNumber + ": " + e.getMessage());
+                continue;
+            }
+
+            if (current != null && current.orderId().equals(row.orderId())) {
+                current.orderItemDTOList().addAll(row.orderItemDTOList());
+            } else {
+                if (current != null) {
+                    consumer.accept(current);
+                    read++;
+                }
+                current = row;
+            }
+        }
+        if (current != null) {
+            consumer.accept(current);
+            read++;
+        }
+        return read;
+    }
+
+    //one order holding the single item of the row
+    private static OrderDTO parseRow(String line, List<String> fields) {
+        split(line, fields);
+        if (fields.size() != FIELDS) {
+            throw new IllegalArgumentException("expected " + FIELDS + " fields but found " + fields.size());
+        }
+
+        List<OrderItemDTO> items = new ArrayList<>();
+        items.add(new OrderItemDTO(null, fields.get(2), Integer.parseInt(fields.get(3)), new BigDecimal(fields.get(4))));
+        return new OrderDTO(Long.parseLong(fields.get(0)), Long.parseLong(fields.get(1)), items,
+                new BigDecimal(fields.get(6)), LocalDateTime.parse(fields.get(5), DATE_TIME_FORMATTER));
+    }
+
+    //RFC 4180 fields, the counterpart of OrderRowEncoder.escape
+    static void split(String line, List<String> fields) {
+        fields.clear();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) throw new IllegalArgumentException("unterminated quoted field");
+        fields.add(field.toString());
+    }
+
+    //splits the input at line breaks (\n, \r\n or \r) outside quoted fields; the ones inside are kept as they are
+    private static final class RecordReader {
+        private final BufferedReader reader;
+        private final StringBuilder record = new StringBuilder();
+        private long lineNumber = 1;
+        private long recordLineNumber;
+
+        RecordReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        //null at the end of the input
+        String next() throws IOException {
+            record.setLength(0);
+            recordLineNumber = lineNumber;
+            boolean quoted = false;
+            int c;
+
+            while ((c = reader.read()) != -1) {
+                if (c == '\r' || c == '\n') {
+                    if (c == '\r') {
+                        reader.mark(1);
+                        if (reader.read() != '\n') {
+                            reader.reset();
+                        } else if (quoted) {
+                            record.append('\r');
+                            c = '\n';
+                        }
+                    }
+                    lineNumber++;
+                    if (!quoted) return record.toString();
+                } else if (c == '"') {
+                    //an escaped quote toggles twice
+                    quoted = !quoted;
+                }
+                record.append((char) c);
+            }
+            return record.length() == 0 ? null : record.toString();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.epam.training.food.data;
+
+import com.epam.training.food.domain.OrderDTO;
+import com.epam.training.food.event.OrderCreatedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+//write-behind CSV log: orders are queued by the request thread and appended in batches by one background writer
+@Component
+@ConditionalOnProperty(name = "orders.export.mode", havingValue = "event-log", matchIfMissing = true)
+public class OrderEventLog {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrderEventLog.class);
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private final OrderWriter orderWriter;
+    private final Path path;
+    private final boolean truncateOnStart;
+    private final int maxBatchSize;
+    private final long offerTimeoutNanos;
+    //bounded, so a writer that falls behind does not fill the heap; see onOrderCreated for what happens when it is full
+    private final BlockingQueue<OrderDTO> queue;
+    //guards the channel and the encoder, which the writer thread shares with direct appends
+    private final Object writeLock = new Object();
+
+    private FileChannel channel;
+    private OrderRowEncoder encoder;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    public OrderEventLog(OrderWriter orderWriter,
+                         @Value("${orders.event-log.path:./orders}") String path,
+                         @Value("${orders.event-log.truncate-on-start:false}") boolean truncateOnStart,
+                         @Value("${orders.event-log.capacity:10000}") int capacity,
+                         @Value("${orders.event-log.max-batch-size:1000}") int maxBatchSize,
+                         @Value("${orders.event-log.offer-timeout:PT0.1S}") Duration offerTimeout) {
+        this.orderWriter = orderWriter;
+        this.path = Path.of(path);
+        this.truncateOnStart = truncateOnStart;
+        this.maxBatchSize = maxBatchSize;
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        channel = truncateOnStart
+                ? FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)
+                : FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        channel.position(channel.size());
+        encoder = orderWriter.newEncoder(channel);
+        running = true;
+        writerThread = new Thread(this::drain, "order-event-log");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    //called on the thread that placed the order, which may still hold the customer's lock: a full queue is waited on
+    //for offer-timeout at most, then the order is appended right here; after stop() every order is appended on the
+    //calling thread, reopening the file for each batch as the shared channel is closed
+    @EventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        OrderDTO order = event.order();
+        if (!running) {
+            appendDirectly(order);
+            return;
+        }
+        try {
+            if (!queue.offer(order, offerTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                LOGGER.warn("Order event log queue is full, appending order {} on the calling thread", order.orderId());
+                appendDirectly(order);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            appendDirectly(order);
+            return;
+        }
+        //stop() may have drained the queue between the check above and the offer
+        if (!running) appendQueued();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        synchronized (writeLock) {
+            appendQueued();
+            channel.close();
+        }
+    }
+
+    private void drain() {
+        List<OrderDTO> batch = new ArrayList<>(maxBatchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                OrderDTO first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                appendBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                LOGGER.error("Unable to append {} order(s) to {}", batch.size(), path, e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void appendDirectly(OrderDTO order) {
+        try {
+            appendBatch(List.of(order));
+        } catch (IOException e) {
+            LOGGER.error("Unable to append order {} to {}", order.orderId(), path, e);
+        }
+    }
+
+    private void appendQueued() {
+        List<OrderDTO> batch = new ArrayList<>();
+        queue.drainTo(batch);
+        if (batch.isEmpty()) return;
+        try {
+            appendBatch(batch);
+        } catch (IOException e) {
+            LOGGER.error("Unable to append {} order(s) to {}", batch.size(), path, e);
+        }
+    }
+
+    //one write and one fsync per batch (group commit), however many orders it holds
+    private void appendBatch(List<OrderDTO> batch) throws IOException {
+        synchronized (writeLock) {
+            if (!channel.isOpen()) {
+                appendAfterStop(batch);
+                return;
+            }
+            for (OrderDTO order : batch) {
+                encoder.write(order);
+            }
+            encoder.flush();
+            channel.force(false);
+        }
+    }
+
+    //orders committed by requests or imports still in flight during shutdown
+    private void appendAfterStop(List<OrderDTO> batch) throws IOException {
+        try (FileChannel appendChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            OrderRowEncoder appendEncoder = orderWriter.newEncoder(appendChannel);
+            for (OrderDTO order : batch) {
+                appendEncoder.write(order);
+            }
+            appendEncoder.flush();
+            appendChannel.force(false);
+        }
+    }
+}
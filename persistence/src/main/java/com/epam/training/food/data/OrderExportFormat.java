@@ -0,0 +1,19 @@
+package com.epam.training.food.data;
+
+import com.epam.training.food.domain.OrderDTO;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
+
+//an output format of the order export, selected by orders.export.format
+public interface OrderExportFormat {
+
+    String getName();
+
+    //appended to the export path, empty for the plain CSV so ./orders keeps its name
+    String getFileExtension();
+
+    //the stream is flushed but left open, it belongs to the caller
+    ExportSummary write(Stream<OrderDTO> orders, OutputStream outputStream) throws IOException;
+}
@@ -0,0 +1,25 @@
+package com.epam.training.food.data;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+public class OrderExportFormats {
+    private final Map<String, OrderExportFormat> formats;
+
+    public OrderExportFormats(List<OrderExportFormat> formats) {
+        this.formats = formats.stream().collect(Collectors.toMap(OrderExportFormat::getName, Function.identity()));
+    }
+
+    public OrderExportFormat get(String name) {
+        OrderExportFormat format = formats.get(name);
+        if (format == null) {
+            throw new IllegalArgumentException("Unknown order export format: " + name + ", expected one of " + formats.keySet());
+        }
+        return format;
+    }
+}
@@ -0,0 +1,155 @@
+package com.epam.training.food.data;
+
+import com.epam.training.food.domain.OrderDTO;
+import com.epam.training.food.event.OrderCreatedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+//append-only binary order journal in memory-mapped segments;
+//a record is [int payload length][int CRC32 of payload][payload], a zero length marks the end of a segment.
+//Every append leaves a zero header behind its record, so bytes of a torn record after it are never read
+@Component
+@ConditionalOnProperty(name = "orders.journal.enabled", havingValue = "true")
+public class OrderJournal implements Closeable {
+    static final int HEADER_BYTES = Integer.BYTES * 2;
+    private static final String SEGMENT_PREFIX = "orders-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer payload = ByteBuffer.allocate(4096);
+
+    private long segmentNumber;
+    private MappedByteBuffer segment;
+
+    public OrderJournal(@Value("${orders.journal.directory:./journal}") String directory,
+                        @Value("${orders.journal.segment-size:67108864}") int segmentSize) throws IOException {
+        this.directory = Path.of(directory);
+        this.segmentSize = segmentSize;
+        Files.createDirectories(this.directory);
+
+        List<Path> segments = segments(this.directory);
+        if (segments.isEmpty()) {
+            openSegment(1);
+        } else {
+            Path last = segments.get(segments.size() - 1);
+            openSegment(segmentNumber(last));
+            segment.position(endOfValidRecords(segment));
+            //a torn record left behind by a crash stays in the file, the end marker hides it from readers
+            writeEndMarker();
+            segment.force();
+        }
+    }
+
+    @EventListener
+    public void onOrderCreated(OrderCreatedEvent event) throws IOException {
+        append(event.order());
+    }
+
+    public synchronized void append(OrderDTO order) throws IOException {
+        int maxSize = OrderJournalCodec.encodedSize(order);
+        if (payload.capacity() < maxSize) payload = ByteBuffer.allocate(Math.max(maxSize, payload.capacity() * 2));
+
+        payload.clear();
+        OrderJournalCodec.encode(order, payload);
+        payload.flip();
+
+        int recordSize = HEADER_BYTES + payload.remaining();
+        if (recordSize + HEADER_BYTES > segmentSize) {
+            throw new IllegalArgumentException("Order " + order.orderId() + " does not fit into a journal segment");
+        }
+        //a zero header must always fit behind the record, so readers find the end of the segment
+        if (segment.remaining() < recordSize + HEADER_BYTES) {
+            segment.force();
+            openSegment(segmentNumber + 1);
+        }
+
+        crc.reset();
+        crc.update(payload.duplicate());
+        segment.putInt(payload.remaining());
+        segment.putInt((int) crc.getValue());
+        segment.put(payload);
+        writeEndMarker();
+    }
+
+    @Scheduled(fixedDelayString = "${orders.journal.force-interval:PT1S}")
+    public synchronized void flush() {
+        segment.force();
+    }
+
+    @PreDestroy
+    @Override
+    public synchronized void close() {
+        segment.force();
+    }
+
+    //absolute puts, the next record starts on top of the marker
+    private void writeEndMarker() {
+        if (segment.remaining() < HEADER_BYTES) return;
+        segment.putInt(segment.position(), 0);
+        segment.putInt(segment.position() + Integer.BYTES, 0);
+    }
+
+    private void openSegment(long number) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(directory, number),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            //the mapping stays valid after the channel is closed
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        segmentNumber = number;
+    }
+
+    //skips the records that were completely written, a torn record at the tail is overwritten by the next append
+    private static int endOfValidRecords(ByteBuffer segment) {
+        ByteBuffer buffer = segment.duplicate();
+        CRC32 crc = new CRC32();
+        while (buffer.remaining() >= HEADER_BYTES) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) return start;
+
+            ByteBuffer record = buffer.slice();
+            record.limit(length);
+            crc.reset();
+            crc.update(record);
+            if ((int) crc.getValue() != checksum) return start;
+            buffer.position(buffer.position() + length);
+        }
+        return buffer.position();
+    }
+
+    static List<Path> segments(Path directory) throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    static Path segmentPath(Path directory, long number) {
+        return directory.resolve(String.format("%s%012d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    private static long segmentNumber(Path segment) {
+        String fileName = segment.getFileName().toString();
+        return Long.parseLong(fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length()));
+    }
+}
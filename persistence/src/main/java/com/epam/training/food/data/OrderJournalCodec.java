@@ -0,0 +1,72 @@
+package com.epam.training.food.data;
+
+import com.epam.training.food.domain.Money;
+import com.epam.training.food.domain.OrderDTO;
+import com.epam.training.food.domain.OrderItemDTO;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+//binary layout of one journal record payload, all prices as long cents;
+//food names are stored with an unsigned short length, so they are limited to 65535 UTF-8 bytes
+final class OrderJournalCodec {
+    static final int MAX_NAME_BYTES = 0xFFFF;
+
+    private OrderJournalCodec() {
+    }
+
+    static int encodedSize(OrderDTO order) {
+        int size = Long.BYTES * 3 + Long.BYTES + Integer.BYTES + Integer.BYTES;
+        for (OrderItemDTO item : order.orderItemDTOList()) {
+            //3 bytes per char is the UTF-8 worst case, only a name that might be too long is encoded to check
+            if (item.foodName().length() * 3 > MAX_NAME_BYTES
+                    && item.foodName().getBytes(StandardCharsets.UTF_8).length > MAX_NAME_BYTES) {
+                throw new IllegalArgumentException("Food name of order " + order.orderId() + " is longer than "
+                        + MAX_NAME_BYTES + " UTF-8 bytes and cannot be journaled");
+            }
+            size += Long.BYTES + Integer.BYTES + Long.BYTES + Short.BYTES + item.foodName().length() * 3;
+        }
+        return size;
+    }
+
+    static void encode(OrderDTO order, ByteBuffer buffer) {
+        buffer.putLong(order.orderId());
+        buffer.putLong(order.customerId());
+        buffer.putLong(Money.toCents(order.price()));
+        buffer.putLong(order.timestampCreated().toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(order.timestampCreated().getNano());
+        buffer.putInt(order.orderItemDTOList().size());
+
+        for (OrderItemDTO item : order.orderItemDTOList()) {
+            byte[] name = item.foodName().getBytes(StandardCharsets.UTF_8);
+            buffer.putLong(item.foodId());
+            buffer.putInt(item.pieces());
+            buffer.putLong(Money.toCents(item.price()));
+            buffer.putShort((short) name.length);
+            buffer.put(name);
+        }
+    }
+
+    static OrderDTO decode(ByteBuffer buffer) {
+        long orderId = buffer.getLong();
+        long customerId = buffer.getLong();
+        long priceCents = buffer.getLong();
+        LocalDateTime timestampCreated = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+        int itemCount = buffer.getInt();
+
+        List<OrderItemDTO> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            long foodId = buffer.getLong();
+            int pieces = buffer.getInt();
+            long itemPriceCents = buffer.getLong();
+            byte[] name = new byte[Short.toUnsignedInt(buffer.getShort())];
+            buffer.get(name);
+            items.add(new OrderItemDTO(foodId, new String(name, StandardCharsets.UTF_8), pieces, Money.toBigDecimal(itemPriceCents)));
+        }
+        return new OrderDTO(orderId, customerId, items, Money.toBigDecimal(priceCents), timestampCreated);
+    }
+}
@@ -0,0 +1,67 @@
+package com.epam.training.food.data;
+
+import com.epam.training.food.domain.OrderDTO;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+//replays a journal written by OrderJournal straight from read-only mappings of its segments
+public class OrderJournalReader {
+    private final Path directory;
+
+    public OrderJournalReader(Path directory) {
+        this.directory = directory;
+    }
+
+    //returns the number of orders replayed; a torn record is only accepted at the very end of the last segment
+    public long replay(Consumer<OrderDTO> consumer) throws IOException {
+        List<Path> segments = OrderJournal.segments(directory);
+        CRC32 crc = new CRC32();
+        long replayed = 0;
+
+        for (int i = 0; i < segments.size(); i++) {
+            boolean lastSegment = i == segments.size() - 1;
+            MappedByteBuffer buffer = map(segments.get(i));
+
+            while (buffer.remaining() >= OrderJournal.HEADER_BYTES) {
+                int start = buffer.position();
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length == 0) break;
+
+                if (length < 0 || length > buffer.remaining()) {
+                    if (lastSegment) break;
+                    throw new IllegalStateException("Corrupt record length in " + segments.get(i) + " at " + start);
+                }
+
+                int payloadStart = buffer.position();
+                buffer.limit(payloadStart + length);
+                crc.reset();
+                crc.update(buffer);
+                if ((int) crc.getValue() != checksum) {
+                    if (lastSegment) break;
+                    throw new IllegalStateException("CRC mismatch in " + segments.get(i) + " at " + start);
+                }
+
+                buffer.position(payloadStart);
+                consumer.accept(OrderJournalCodec.decode(buffer));
+                buffer.limit(buffer.capacity());
+                buffer.position(payloadStart + length);
+                replayed++;
+            }
+        }
+        return replayed;
+    }
+
+    private static MappedByteBuffer map(Path segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+}
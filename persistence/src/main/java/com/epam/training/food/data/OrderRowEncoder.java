@@ -0,0 +1,199 @@
+package com.epam.training.food.data;
+
+import com.epam.training.food.domain.OrderDTO;
+import com.epam.training.food.domain.OrderItemDTO;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+//encodes CSV rows straight into a reusable byte buffer that is drained into the channel,
+//the same columns as OrderWriter.addOrderItem without the per-field strings; not thread-safe
+final class OrderRowEncoder {
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    //as OrderWriter.addOrders, the export reads the same on every platform
+    private static final byte LINE_SEPARATOR = '\n';
+    private static final int MAX_CACHED_NAMES = 1024;
+    //room kept for the fixed-width columns of a row, all of them but the food name
+    private static final int ROW_BYTES = 256;
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L,
+            10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L, 100_000_000_000_000L,
+            1_000_000_000_000_000L, 10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L};
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    //food names repeat on almost every row, so each is escaped and encoded once
+    private final Map<String, byte[]> encodedNames = new HashMap<>();
+    private final byte[] digits = new byte[20];
+
+    //orders placed within the same minute share one formatted timestamp
+    private long cachedMinute = -1;
+    private final byte[] cachedTimestamp = new byte[16];
+
+    private long bytesWritten;
+
+    OrderRowEncoder(WritableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+    }
+
+    //returns the number of item rows written
+    int write(OrderDTO order) throws IOException {
+        for (OrderItemDTO orderItem : order.orderItemDTOList()) {
+            ensureCapacity(ROW_BYTES);
+            putLong(order.orderId());
+            buffer.put((byte) ',');
+            putLong(order.customerId());
+            buffer.put((byte) ',');
+            putBytes(encodedName(orderItem.foodName()));
+            buffer.put((byte) ',');
+            putLong(orderItem.pieces());
+            buffer.put((byte) ',');
+            putDecimal(orderItem.price());
+            buffer.put((byte) ',');
+            putTimestamp(order.timestampCreated());
+            buffer.put((byte) ',');
+            putDecimal(order.price());
+            buffer.put(LINE_SEPARATOR);
+        }
+        return order.orderItemDTOList().size();
+    }
+
+    void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            bytesWritten += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) flush();
+    }
+
+    //a name that would not leave room for the rest of the row even in an empty buffer bypasses it
+    private void putBytes(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.capacity() - ROW_BYTES) {
+            flush();
+            ByteBuffer wrapped = ByteBuffer.wrap(bytes);
+            while (wrapped.hasRemaining()) {
+                bytesWritten += channel.write(wrapped);
+            }
+            return;
+        }
+        ensureCapacity(bytes.length + ROW_BYTES);
+        buffer.put(bytes);
+    }
+
+    private void putLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            buffer.put(Long.toString(value).getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        int position = digits.length;
+        do {
+            digits[--position] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        buffer.put(digits, position, digits.length - position);
+    }
+
+    //same text as BigDecimal.toPlainString, read from the unscaled long when it fits
+    private void putDecimal(BigDecimal value) {
+        int scale = value.scale();
+        if (scale < 0 || scale >= POWERS_OF_TEN.length || value.unscaledValue().bitLength() > 63) {
+            buffer.put(value.toPlainString().getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+
+        long unscaled = value.unscaledValue().longValue();
+        if (unscaled < 0) {
+            buffer.put((byte) '-');
+            unscaled = -unscaled;
+        }
+        long power = POWERS_OF_TEN[scale];
+        putLong(unscaled / power);
+        if (scale > 0) {
+            buffer.put((byte) '.');
+            putPadded(unscaled % power, scale);
+        }
+    }
+
+    private void putPadded(long value, int width) {
+        for (int i = width - 1; i >= 0; i--) {
+            digits[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        buffer.put(digits, 0, width);
+    }
+
+    private void putTimestamp(LocalDateTime timestamp) {
+        int year = timestamp.getYear();
+        if (year < 0 || year > 9999) {
+            buffer.put(timestamp.format(DATE_TIME_FORMATTER).getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+
+        long minute = ((((year * 13L + timestamp.getMonthValue()) * 32 + timestamp.getDayOfMonth()) * 24
+                + timestamp.getHour()) * 60) + timestamp.getMinute();
+        if (minute != cachedMinute) {
+            formatTimestamp(timestamp, year);
+            cachedMinute = minute;
+        }
+        buffer.put(cachedTimestamp);
+    }
+
+    //dd/MM/yyyy HH:mm
+    private void formatTimestamp(LocalDateTime timestamp, int year) {
+        putTwoDigits(0, timestamp.getDayOfMonth());
+        cachedTimestamp[2] = '/';
+        putTwoDigits(3, timestamp.getMonthValue());
+        cachedTimestamp[5] = '/';
+        putTwoDigits(6, year / 100);
+        putTwoDigits(8, year % 100);
+        cachedTimestamp[10] = ' ';
+        putTwoDigits(11, timestamp.getHour());
+        cachedTimestamp[13] = ':';
+        putTwoDigits(14, timestamp.getMinute());
+    }
+
+    private void putTwoDigits(int offset, int value) {
+        cachedTimestamp[offset] = (byte) ('0' + value / 10);
+        cachedTimestamp[offset + 1] = (byte) ('0' + value % 10);
+    }
+
+    private byte[] encodedName(String name) {
+        byte[] encoded = encodedNames.get(name);
+        if (encoded == null) {
+            encoded = escape(name).getBytes(StandardCharsets.UTF_8);
+            if (encodedNames.size() < MAX_CACHED_NAMES) encodedNames.put(name, encoded);
+        }
+        return encoded;
+    }
+
+    //RFC 4180: a field holding a separator, quote or line break is quoted and its quotes doubled
+    static String escape(String field) {
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return '"' + field.replace("\"", "\"\"") + '"';
+            }
+        }
+        return field;
+    }
+}
@@ -1,15 +1,19 @@
 package com.epam.training.food.data;
 
-import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
-import java.nio.file.Files;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.epam.training.food.domain.Order;
 import com.epam.training.food.domain.OrderDTO;
@@ -22,16 +26,48 @@ import javax.transaction.Transactional;
 @Component
 public class OrderWriter {
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private static final int ENCODER_BUFFER_SIZE = 64 * 1024;
 
     public void writeOrdersToFile(List<OrderDTO> orders, Path outputPath) {
-        try (BufferedWriter writer = Files.newBufferedWriter(outputPath)){
-            writer.write(addOrders(orders));
-            writer.newLine();
+        try {
+            writeOrdersStreaming(orders.stream(), outputPath);
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
+    public ExportSummary writeOrdersStreaming(Stream<OrderDTO> orders, Path outputPath) throws IOException {
+        try (FileChannel channel = FileChannel.open(outputPath,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            return writeOrdersStreaming(orders, channel);
+        }
+    }
+
+    //the stream is flushed but left open, it belongs to the caller
+    public ExportSummary writeOrdersStreaming(Stream<OrderDTO> orders, OutputStream outputStream) throws IOException {
+        ExportSummary summary = writeOrdersStreaming(orders, Channels.newChannel(outputStream));
+        outputStream.flush();
+        return summary;
+    }
+
+    //writes every order item row as soon as it is produced, so memory stays bounded by the encoder buffer
+    public ExportSummary writeOrdersStreaming(Stream<OrderDTO> orders, WritableByteChannel channel) throws IOException {
+        OrderRowEncoder encoder = newEncoder(channel);
+        long rows = 0;
+        Iterator<OrderDTO> iterator = orders.iterator();
+
+        while (iterator.hasNext()) {
+            rows += encoder.write(iterator.next());
+        }
+        encoder.flush();
+
+        return new ExportSummary(rows, encoder.getBytesWritten());
+    }
+
+    OrderRowEncoder newEncoder(WritableByteChannel channel) {
+        return new OrderRowEncoder(channel, ENCODER_BUFFER_SIZE);
+    }
+
     public String addOrders(List<OrderDTO> orders) {
         return orders
                 .stream()
@@ -63,7 +99,7 @@ public class OrderWriter {
                 ",",
                 Long.toString(orderId),
                 Long.toString(customerId),
-                orderItem.foodName(),
+                OrderRowEncoder.escape(orderItem.foodName()),
                 Integer.toString(orderItem.pieces()),
                 orderItem.price().toPlainString(),
                 timestampCreated.format(DATE_TIME_FORMATTER),
@@ -2,32 +2,95 @@ package com.epam.training.food.domain;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 public class Cart {
-    private List<OrderItem> orderItems;
+    //keyed by food id, insertion order is kept so the items are listed in the order they were added
+    private final Map<Long, OrderItem> orderItems = new LinkedHashMap<>();
+    //running sum of the item prices in cents, maintained on every change instead of being re-summed
+    private long itemsTotalCents;
     //the field price can be used later to add discounts, so it would differ from the sum of the OrderItems
     private BigDecimal price;
+    //pieces held for this cart in the inventory, keyed by food id
+    private final Map<Long, Integer> reservedPieces = new HashMap<>();
 
     public Cart() {
     }
 
-    private Cart(List<OrderItem> orderItems, BigDecimal price) {
-        this.orderItems = orderItems;
+    private Cart(BigDecimal price) {
         this.price = price;
     }
 
     public static Cart getEmptyCart() {
-        return new Cart(new ArrayList<>(), BigDecimal.ZERO);
+        return new Cart(BigDecimal.ZERO);
     }
 
+    //a read-only copy, items are changed through putItem and removeItem so the running total stays right
     public List<OrderItem> getOrderItems() {
-        return orderItems;
+        return Collections.unmodifiableList(new ArrayList<>(orderItems.values()));
     }
 
     public void setOrderItems(List<OrderItem> orderItems) {
-        this.orderItems = orderItems;
+        this.orderItems.clear();
+        this.itemsTotalCents = 0L;
+        if (orderItems != null) {
+            orderItems.forEach(this::putItem);
+        }
+    }
+
+    public OrderItem getItem(Food food) {
+        return orderItems.get(food.getId());
+    }
+
+    public void putItem(OrderItem item) {
+        if (item.getFood() == null || item.getFood().getId() == null) {
+            throw new IllegalArgumentException("Only a saved food with an id can be put into the cart: " + item.getFood());
+        }
+        OrderItem replaced = orderItems.put(item.getFood().getId(), item);
+        itemsTotalCents = Money.add(itemsTotalCents, item.getPriceCents());
+        if (replaced != null) {
+            itemsTotalCents = Money.subtract(itemsTotalCents, replaced.getPriceCents());
+        }
+    }
+
+    public void removeItem(Food food) {
+        OrderItem removed = orderItems.remove(food.getId());
+        if (removed != null) {
+            itemsTotalCents = Money.subtract(itemsTotalCents, removed.getPriceCents());
+        }
+    }
+
+    public int getReservedPieces(Long foodId) {
+        return reservedPieces.getOrDefault(foodId, 0);
+    }
+
+    public void setReservedPieces(Long foodId, int pieces) {
+        if (pieces == 0) {
+            reservedPieces.remove(foodId);
+        } else {
+            reservedPieces.put(foodId, pieces);
+        }
+    }
+
+    public Map<Long, Integer> getReservations() {
+        return new HashMap<>(reservedPieces);
+    }
+
+    public boolean isEmpty() {
+        return orderItems.isEmpty();
+    }
+
+    public BigDecimal getItemsTotal() {
+        return Money.toBigDecimal(itemsTotalCents);
+    }
+
+    public long getItemsTotalCents() {
+        return itemsTotalCents;
     }
 
     public BigDecimal getPrice() {
@@ -56,7 +119,7 @@ public class Cart {
     @Override
     public String toString() {
         return "Cart{" +
-                "orderItems=" + orderItems +
+                "orderItems=" + orderItems.values() +
                 ", price=" + price +
                 '}';
     }
@@ -1,5 +1,7 @@
 package com.epam.training.food.domain;
 
+import com.epam.training.food.event.CustomerEntityListener;
+
 import javax.persistence.*;
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -7,14 +9,22 @@ import java.util.List;
 import java.util.Objects;
 
 @Entity
+@EntityListeners(CustomerEntityListener.class)
+@Table(indexes = @Index(name = "ux_customer_user_name", columnList = "user_name", unique = true))
 public class Customer extends Credentials {
 
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
     private Long id;
 
+    //guards balance updates made by other nodes, in-process orders are already serialized per customer
+    @Version
+    private long version;
+
     private String name;
     private BigDecimal balance;
+    @Transient
+    private long balanceCents;
 
     @Transient
     private Cart cart;
@@ -30,15 +40,22 @@ public class Customer extends Credentials {
         this.id = id;
         this.name = name;
         this.balance = balance;
+        this.balanceCents = Money.toCents(balance);
         this.cart = cart;
     }
 
+    @PostLoad
+    private void cacheBalanceCents() {
+        this.balanceCents = Money.toCents(balance);
+    }
+
     public Order makeOrder() {
 
-        if (Objects.equals(this.getCart(), Cart.getEmptyCart()))
+        if (this.getCart() == null || this.getCart().isEmpty())
             throw new IllegalStateException(); //if cart is empty we can't create order
 
-        balance = balance.subtract(cart.getPrice());
+        balanceCents = Money.subtract(balanceCents, Money.toCents(cart.getPrice()));
+        balance = Money.toBigDecimal(balanceCents);
         Order newOrder = new Order(this);
 
         System.out.println(newOrder);
@@ -65,6 +82,10 @@ public class Customer extends Credentials {
         return balance;
     }
 
+    public long getBalanceCents() {
+        return balanceCents;
+    }
+
     public Cart getCart() {
         return cart;
     }
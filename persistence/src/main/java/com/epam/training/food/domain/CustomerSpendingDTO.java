@@ -0,0 +1,6 @@
+package com.epam.training.food.domain;
+
+import java.math.BigDecimal;
+
+public record CustomerSpendingDTO(Long customerId, long orderCount, BigDecimal totalSpent) {
+}
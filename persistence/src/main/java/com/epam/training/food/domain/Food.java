@@ -1,10 +1,13 @@
 package com.epam.training.food.domain;
 
+import com.epam.training.food.event.FoodEntityListener;
+
 import javax.persistence.*;
 import java.math.BigDecimal;
 import java.util.Objects;
 
 @Entity
+@EntityListeners(FoodEntityListener.class)
 public class Food {
 
     @Id
@@ -15,6 +18,13 @@ public class Food {
     private BigDecimal calorie;
     private String description;
     private BigDecimal price;
+    //portions left to sell, null when the dish is not stock-limited; kept current by InventoryService
+    private Long stock;
+    //the stock is also decremented by InventoryService's bulk updates, which a stale copy must not overwrite
+    @Version
+    private long version;
+    @Transient
+    private long priceCents;
 
     public Food() {
     }
@@ -25,6 +35,12 @@ public class Food {
         this.calorie = calorie;
         this.description = description;
         this.price = price;
+        this.priceCents = Money.toCents(price);
+    }
+
+    @PostLoad
+    private void cachePriceCents() {
+        this.priceCents = Money.toCents(price);
     }
 
     public Long getId() {
@@ -65,6 +81,19 @@ public class Food {
 
     public void setPrice(BigDecimal price) {
         this.price = price;
+        this.priceCents = Money.toCents(price);
+    }
+
+    public long getPriceCents() {
+        return priceCents;
+    }
+
+    public Long getStock() {
+        return stock;
+    }
+
+    public void setStock(Long stock) {
+        this.stock = stock;
     }
 
     @Override public boolean equals(Object o) {
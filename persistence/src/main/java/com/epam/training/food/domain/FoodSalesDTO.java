@@ -0,0 +1,6 @@
+package com.epam.training.food.domain;
+
+import java.math.BigDecimal;
+
+public record FoodSalesDTO(Long foodId, String foodName, long pieces, BigDecimal revenue) {
+}
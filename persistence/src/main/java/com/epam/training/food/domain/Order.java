@@ -3,6 +3,7 @@ package com.epam.training.food.domain;
 import javax.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
@@ -10,8 +11,10 @@ import java.util.Objects;
 @Table(name = "_Order")
 public class Order {
 
+    //pooled sequence: one sequence call hands out 50 ids, so inserts can be batched
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(name = "order_seq", sequenceName = "order_seq", allocationSize = 50)
     @Column(name = "order_id")
     private Long orderId;
 
@@ -31,7 +34,7 @@ public class Order {
 
     public Order(Customer customer) {
         this.customer = customer;
-        this.orderItems = customer.getCart().getOrderItems();
+        this.orderItems = new ArrayList<>(customer.getCart().getOrderItems());
         this.price = customer.getCart().getPrice();
         this.timestampCreated = LocalDateTime.now();
         this.orderId = null;
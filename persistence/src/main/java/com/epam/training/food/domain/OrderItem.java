@@ -8,7 +8,8 @@ import java.util.Objects;
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_seq")
+    @SequenceGenerator(name = "order_item_seq", sequenceName = "order_item_seq", allocationSize = 50)
     @Column(name = "order_Item_Id")
     private Long id;
 
@@ -18,6 +19,8 @@ public class OrderItem {
     private int pieces;
     //the field price can be used later to add discounts, so it would differ from (food x pieces)
     private BigDecimal price;
+    @Transient
+    private long priceCents;
 
     public OrderItem() {
     }
@@ -26,6 +29,19 @@ public class OrderItem {
         this.food = food;
         this.pieces = pieces;
         this.price = price;
+        this.priceCents = Money.toCents(price);
+    }
+
+    public OrderItem(Food food, int pieces, long priceCents) {
+        this.food = food;
+        this.pieces = pieces;
+        this.price = Money.toBigDecimal(priceCents);
+        this.priceCents = priceCents;
+    }
+
+    @PostLoad
+    private void cachePriceCents() {
+        this.priceCents = Money.toCents(price);
     }
 
     public Food getFood() {
@@ -50,6 +66,11 @@ public class OrderItem {
 
     public void setPrice(BigDecimal price) {
         this.price = price;
+        this.priceCents = Money.toCents(price);
+    }
+
+    public long getPriceCents() {
+        return priceCents;
     }
 
     @Override
@@ -0,0 +1,9 @@
+package com.epam.training.food.domain;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+//one flat row of the order/customer/item/food join, projected without hydrating any entity
+public record OrderItemRowDTO(Long orderId, Long customerId, BigDecimal orderPrice, LocalDateTime timestampCreated,
+                              Long foodId, String foodName, int pieces, BigDecimal price) {
+}
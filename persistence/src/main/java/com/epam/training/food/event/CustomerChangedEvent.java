@@ -0,0 +1,4 @@
+package com.epam.training.food.event;
+
+public record CustomerChangedEvent(Long customerId, String userName) {
+}
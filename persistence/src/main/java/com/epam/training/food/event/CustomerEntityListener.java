@@ -0,0 +1,24 @@
+package com.epam.training.food.event;
+
+import com.epam.training.food.domain.Customer;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+
+//only creation and removal change whether a user name exists; balance updates on every order are not published
+@Component
+public class CustomerEntityListener {
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CustomerEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostRemove
+    public void onCustomerChanged(Customer customer) {
+        eventPublisher.publishEvent(new CustomerChangedEvent(customer.getId(), customer.getUserName()));
+    }
+}
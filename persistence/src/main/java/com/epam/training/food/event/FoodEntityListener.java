@@ -0,0 +1,26 @@
+package com.epam.training.food.event;
+
+import com.epam.training.food.domain.Food;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+//Hibernate resolves entity listeners through the Spring bean container, so the publisher can be injected
+@Component
+public class FoodEntityListener {
+    private final ApplicationEventPublisher eventPublisher;
+
+    public FoodEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onFoodChanged(Food food) {
+        eventPublisher.publishEvent(new FoodChangedEvent(food.getId()));
+    }
+}
@@ -0,0 +1,7 @@
+package com.epam.training.food.event;
+
+import com.epam.training.food.domain.OrderDTO;
+
+//published once the order's transaction has committed
+public record OrderCreatedEvent(OrderDTO order) {
+}
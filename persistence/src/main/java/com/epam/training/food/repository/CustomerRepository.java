@@ -12,6 +12,7 @@ import java.util.Optional;
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer,Long> {
 
-     Optional<Customer> findCustomerByUserNameAndPassword(String userName, String password);
+     //served by the unique index on user_name, the password is verified by the caller
+     Optional<Customer> findCustomerByUserName(String userName);
 
 }
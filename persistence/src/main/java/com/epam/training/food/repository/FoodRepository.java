@@ -2,8 +2,17 @@ package com.epam.training.food.repository;
 
 import com.epam.training.food.domain.Food;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface FoodRepository extends JpaRepository<Food, Long> {
+
+    //bulk update without loading the entity, so reconciling sold portions takes no read-modify-write cycle; the version
+    //is bumped so a Food loaded before it cannot be saved over the decrement
+    @Modifying
+    @Query("update Food f set f.stock = f.stock - :pieces, f.version = f.version + 1 where f.id = :foodId and f.stock is not null")
+    int decrementStock(@Param("foodId") Long foodId, @Param("pieces") long pieces);
 }
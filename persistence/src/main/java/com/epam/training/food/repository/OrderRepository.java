@@ -1,7 +1,44 @@
 package com.epam.training.food.repository;
 
+import com.epam.training.food.domain.CustomerSpendingDTO;
+import com.epam.training.food.domain.FoodSalesDTO;
 import com.epam.training.food.domain.Order;
+import com.epam.training.food.domain.OrderItemRowDTO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    //keyset page of order ids, the item rows of a page are then read with a single join
+    @Query("select o.orderId from Order o where o.orderId > :afterOrderId and o.orderId <= :upToOrderId order by o.orderId")
+    List<Long> findOrderIdsInRange(@Param("afterOrderId") long afterOrderId, @Param("upToOrderId") long upToOrderId, Pageable pageable);
+
+    @Query("select o.orderId from Order o where o.customer.id = :customerId and o.orderId > :afterOrderId order by o.orderId")
+    List<Long> findOrderIdsOfCustomerAfter(@Param("customerId") long customerId, @Param("afterOrderId") long afterOrderId, Pageable pageable);
+
+    @Query("select min(o.orderId) from Order o")
+    Long findMinOrderId();
+
+    @Query("select max(o.orderId) from Order o")
+    Long findMaxOrderId();
+
+    @Query("select new com.epam.training.food.domain.OrderItemRowDTO("
+            + "o.orderId, c.id, o.price, o.timestampCreated, f.id, f.name, i.pieces, i.price) "
+            + "from Order o join o.customer c join o.orderItems i join i.food f "
+            + "where o.orderId in :orderIds order by o.orderId, i.id")
+    List<OrderItemRowDTO> findItemRowsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    //aggregates over the order history up to an order id, the starting point of the incrementally kept totals
+    @Query("select new com.epam.training.food.domain.CustomerSpendingDTO(c.id, count(o), sum(o.price)) "
+            + "from Order o join o.customer c where o.orderId <= :upToOrderId group by c.id")
+    List<CustomerSpendingDTO> sumSpendingByCustomer(@Param("upToOrderId") long upToOrderId);
+
+    @Query("select new com.epam.training.food.domain.FoodSalesDTO(f.id, f.name, sum(i.pieces), sum(i.price)) "
+            + "from Order o join o.orderItems i join i.food f where o.orderId <= :upToOrderId group by f.id, f.name")
+    List<FoodSalesDTO> sumSalesByFood(@Param("upToOrderId") long upToOrderId);
 }
@@ -0,0 +1,157 @@
+package com.epam.training.food.analytics;
+
+import com.epam.training.food.domain.CustomerSpendingDTO;
+import com.epam.training.food.domain.FoodSalesDTO;
+import com.epam.training.food.domain.Money;
+import com.epam.training.food.domain.OrderDTO;
+import com.epam.training.food.domain.OrderItemDTO;
+import com.epam.training.food.event.OrderCreatedEvent;
+import com.epam.training.food.repository.OrderRepository;
+import com.epam.training.food.service.OrderPlacementLock;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+//spending per customer and sales per dish, kept up to date from every placed order so dashboards read them without
+//a scan; rebuilt from the order table on startup
+@Component
+public class OrderAggregates {
+    private final OrderRepository orderRepository;
+    private final OrderPlacementLock orderPlacementLock;
+    //orders are added under the read lock, a rebuild takes the write lock so no order lands in the totals it replaces
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+    private volatile Totals totals = new Totals(0);
+
+    public OrderAggregates(OrderRepository orderRepository, OrderPlacementLock orderPlacementLock) {
+        this.orderRepository = orderRepository;
+        this.orderPlacementLock = orderPlacementLock;
+    }
+
+    //child contexts refresh too and would rebuild again
+    @EventListener
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        if (event.getApplicationContext().getParent() == null) rebuild();
+    }
+
+    //the totals are read while no order transaction is running, so an order left out commits with a larger id than
+    //upToOrderId and is added by onOrderCreated
+    public void rebuild() {
+        rebuildLock.writeLock().lock();
+        try {
+            totals = orderPlacementLock.settled(this::readTotals);
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    private Totals readTotals() {
+        Long maxOrderId = orderRepository.findMaxOrderId();
+        Totals rebuilt = new Totals(maxOrderId == null ? 0 : maxOrderId);
+
+        for (CustomerSpendingDTO spending : orderRepository.sumSpendingByCustomer(rebuilt.upToOrderId)) {
+            CustomerTotals customer = rebuilt.customerTotals(spending.customerId());
+            customer.orders.add(spending.orderCount());
+            customer.spentCents.add(Money.toCents(spending.totalSpent()));
+        }
+        for (FoodSalesDTO sales : orderRepository.sumSalesByFood(rebuilt.upToOrderId)) {
+            FoodTotals food = rebuilt.foodTotals(sales.foodId(), sales.foodName());
+            food.pieces.add(sales.pieces());
+            food.revenueCents.add(Money.toCents(sales.revenue()));
+        }
+        return rebuilt;
+    }
+
+    @EventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        OrderDTO order = event.order();
+        rebuildLock.readLock().lock();
+        try {
+            Totals current = totals;
+            //already counted by the rebuild
+            if (order.orderId() <= current.upToOrderId) return;
+
+            CustomerTotals customer = current.customerTotals(order.customerId());
+            customer.orders.increment();
+            customer.spentCents.add(Money.toCents(order.price()));
+            for (OrderItemDTO item : order.orderItemDTOList()) {
+                FoodTotals food = current.foodTotals(item.foodId(), item.foodName());
+                food.pieces.add(item.pieces());
+                food.revenueCents.add(Money.toCents(item.price()));
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    public CustomerSpendingDTO getCustomerSpending(Long customerId) {
+        CustomerTotals customer = totals.customers.get(customerId);
+        if (customer == null) return new CustomerSpendingDTO(customerId, 0, Money.toBigDecimal(0));
+        return new CustomerSpendingDTO(customerId, customer.orders.sum(), Money.toBigDecimal(customer.spentCents.sum()));
+    }
+
+    public FoodSalesDTO getFoodSales(Long foodId) {
+        FoodTotals food = totals.foods.get(foodId);
+        if (food == null) return new FoodSalesDTO(foodId, null, 0, Money.toBigDecimal(0));
+        return food.toDTO(foodId);
+    }
+
+    //the dishes with the most pieces sold, best first
+    public List<FoodSalesDTO> getTopDishes(int limit) {
+        if (limit < 1) throw new IllegalArgumentException("Limit must be positive");
+        Map<Long, FoodTotals> foods = totals.foods;
+        //the limit comes from the request, the queue never holds more than the dishes there are
+        PriorityQueue<FoodSalesDTO> top = new PriorityQueue<>(Math.min(limit, foods.size()) + 1, Comparator.comparingLong(FoodSalesDTO::pieces));
+        foods.forEach((foodId, food) -> {
+            top.add(food.toDTO(foodId));
+            if (top.size() > limit) top.poll();
+        });
+        return top.stream()
+                .sorted(Comparator.comparingLong(FoodSalesDTO::pieces).reversed())
+                .collect(Collectors.toList());
+    }
+
+    private static final class Totals {
+        private final long upToOrderId;
+        private final Map<Long, CustomerTotals> customers = new ConcurrentHashMap<>();
+        private final Map<Long, FoodTotals> foods = new ConcurrentHashMap<>();
+
+        Totals(long upToOrderId) {
+            this.upToOrderId = upToOrderId;
+        }
+
+        CustomerTotals customerTotals(Long customerId) {
+            return customers.computeIfAbsent(customerId, id -> new CustomerTotals());
+        }
+
+        FoodTotals foodTotals(Long foodId, String foodName) {
+            FoodTotals food = foods.computeIfAbsent(foodId, id -> new FoodTotals());
+            food.name = foodName;
+            return food;
+        }
+    }
+
+    private static final class CustomerTotals {
+        private final LongAdder orders = new LongAdder();
+        private final LongAdder spentCents = new LongAdder();
+    }
+
+    private static final class FoodTotals {
+        private final LongAdder pieces = new LongAdder();
+        private final LongAdder revenueCents = new LongAdder();
+        private volatile String name;
+
+        FoodSalesDTO toDTO(Long foodId) {
+            return new FoodSalesDTO(foodId, name, pieces.sum(), Money.toBigDecimal(revenueCents.sum()));
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.epam.training.food.analytics;
+
+import java.time.Duration;
+
+//a sliding window and the width of its ring buffer buckets, which is how far the window's edge may lag
+public enum SalesWindow {
+    LAST_5_MINUTES(Duration.ofMinutes(5), Duration.ofSeconds(1)),
+    LAST_HOUR(Duration.ofHours(1), Duration.ofSeconds(10)),
+    LAST_DAY(Duration.ofDays(1), Duration.ofMinutes(5));
+
+    private final Duration length;
+    private final Duration bucketWidth;
+
+    SalesWindow(Duration length, Duration bucketWidth) {
+        this.length = length;
+        this.bucketWidth = bucketWidth;
+    }
+
+    public Duration getLength() {
+        return length;
+    }
+
+    public Duration getBucketWidth() {
+        return bucketWidth;
+    }
+
+    int getBucketCount() {
+        return (int) (length.toMillis() / bucketWidth.toMillis());
+    }
+}
@@ -0,0 +1,180 @@
+package com.epam.training.food.analytics;
+
+import com.epam.training.food.domain.FoodSalesDTO;
+import com.epam.training.food.domain.Money;
+import com.epam.training.food.domain.OrderDTO;
+import com.epam.training.food.domain.OrderItemDTO;
+import com.epam.training.food.event.OrderCreatedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+//live pieces and revenue per dish over sliding windows, fed by every placed order; each window is a ring of time
+//buckets in flat primitive arrays indexed [bucket * maxFoods + food], plus running totals that expired buckets are
+//subtracted from, so a read costs one pass over the dishes and never touches the order tables
+@Component
+public class SalesWindows {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SalesWindows.class);
+
+    private final int maxFoods;
+    //dense index of each dish into the arrays
+    private final Map<Long, Integer> foodIndexes = new ConcurrentHashMap<>();
+    private final long[] foodIds;
+    private final String[] foodNames;
+    private final Map<SalesWindow, Ring> rings = new EnumMap<>(SalesWindow.class);
+
+    public SalesWindows(@Value("${analytics.sales-windows.max-foods:256}") int maxFoods) {
+        this.maxFoods = maxFoods;
+        this.foodIds = new long[maxFoods];
+        this.foodNames = new String[maxFoods];
+        for (SalesWindow window : SalesWindow.values()) {
+            rings.put(window, new Ring(window, maxFoods));
+        }
+    }
+
+    @EventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        record(event.order(), System.currentTimeMillis());
+    }
+
+    void record(OrderDTO order, long nowMillis) {
+        for (OrderItemDTO item : order.orderItemDTOList()) {
+            int food = indexOf(item.foodId(), item.foodName());
+            if (food < 0) continue;
+
+            long revenueCents = Money.toCents(item.price());
+            for (Ring ring : rings.values()) {
+                ring.add(nowMillis, food, item.pieces(), revenueCents);
+            }
+        }
+    }
+
+    //every dish sold within the window, in no particular order
+    public List<FoodSalesDTO> getSales(SalesWindow window) {
+        return getSales(window, System.currentTimeMillis());
+    }
+
+    //the dishes with the most pieces sold within the window, best first
+    public List<FoodSalesDTO> getTopDishes(SalesWindow window, int limit) {
+        return getTopDishes(window, limit, System.currentTimeMillis());
+    }
+
+    List<FoodSalesDTO> getTopDishes(SalesWindow window, int limit, long nowMillis) {
+        if (limit < 1) throw new IllegalArgumentException("Limit must be positive");
+
+        List<FoodSalesDTO> sold = getSales(window, nowMillis);
+        //the limit comes from the request, the queue never holds more than the dishes sold
+        PriorityQueue<FoodSalesDTO> top = new PriorityQueue<>(Math.min(limit, sold.size()) + 1, Comparator.comparingLong(FoodSalesDTO::pieces));
+        for (FoodSalesDTO sales : sold) {
+            top.add(sales);
+            if (top.size() > limit) top.poll();
+        }
+        List<FoodSalesDTO> result = new ArrayList<>(top);
+        result.sort(Comparator.comparingLong(FoodSalesDTO::pieces).reversed());
+        return result;
+    }
+
+    List<FoodSalesDTO> getSales(SalesWindow window, long nowMillis) {
+        Ring ring = rings.get(window);
+        long[] pieces = new long[maxFoods];
+        long[] revenueCents = new long[maxFoods];
+        int foods = ring.copyTotals(nowMillis, pieces, revenueCents);
+
+        List<FoodSalesDTO> sales = new ArrayList<>();
+        for (int food = 0; food < foods; food++) {
+            if (pieces[food] != 0) {
+                sales.add(new FoodSalesDTO(foodIds[food], foodNames[food], pieces[food], Money.toBigDecimal(revenueCents[food])));
+            }
+        }
+        return sales;
+    }
+
+    private int indexOf(Long foodId, String foodName) {
+        Integer index = foodIndexes.get(foodId);
+        if (index != null) return index;
+
+        synchronized (foodIndexes) {
+            index = foodIndexes.get(foodId);
+            if (index != null) return index;
+            if (foodIndexes.size() == maxFoods) {
+                LOGGER.warn("More than {} dishes sold, food {} is left out of the sales windows", maxFoods, foodId);
+                return -1;
+            }
+            index = foodIndexes.size();
+            foodIds[index] = foodId;
+            foodNames[index] = foodName;
+            foodIndexes.put(foodId, index);
+            return index;
+        }
+    }
+
+    private static final class Ring {
+        private final long bucketMillis;
+        private final int bucketCount;
+        private final int maxFoods;
+        private final long[] pieces;
+        private final long[] revenueCents;
+        private final long[] totalPieces;
+        private final long[] totalRevenueCents;
+        //the absolute bucket number (millis / bucketMillis) the ring has been advanced to
+        private long currentBucket = Long.MIN_VALUE;
+
+        Ring(SalesWindow window, int maxFoods) {
+            this.bucketMillis = window.getBucketWidth().toMillis();
+            this.bucketCount = window.getBucketCount();
+            this.maxFoods = maxFoods;
+            this.pieces = new long[bucketCount * maxFoods];
+            this.revenueCents = new long[bucketCount * maxFoods];
+            this.totalPieces = new long[maxFoods];
+            this.totalRevenueCents = new long[maxFoods];
+        }
+
+        synchronized void add(long nowMillis, int food, int soldPieces, long soldRevenueCents) {
+            advance(nowMillis / bucketMillis);
+            int cell = slot(currentBucket) * maxFoods + food;
+            pieces[cell] += soldPieces;
+            revenueCents[cell] += soldRevenueCents;
+            totalPieces[food] += soldPieces;
+            totalRevenueCents[food] += soldRevenueCents;
+        }
+
+        //returns the number of food slots copied
+        synchronized int copyTotals(long nowMillis, long[] piecesOut, long[] revenueCentsOut) {
+            advance(nowMillis / bucketMillis);
+            System.arraycopy(totalPieces, 0, piecesOut, 0, maxFoods);
+            System.arraycopy(totalRevenueCents, 0, revenueCentsOut, 0, maxFoods);
+            return maxFoods;
+        }
+
+        //buckets that fell out of the window are subtracted from the totals and cleared for reuse
+        private void advance(long bucket) {
+            if (bucket <= currentBucket) return;
+
+            long expired = currentBucket == Long.MIN_VALUE ? 0 : Math.min(bucket - currentBucket, bucketCount);
+            for (long i = 1; i <= expired; i++) {
+                int offset = slot(currentBucket + i) * maxFoods;
+                for (int food = 0; food < maxFoods; food++) {
+                    totalPieces[food] -= pieces[offset + food];
+                    totalRevenueCents[food] -= revenueCents[offset + food];
+                    pieces[offset + food] = 0;
+                    revenueCents[offset + food] = 0;
+                }
+            }
+            currentBucket = bucket;
+        }
+
+        private int slot(long bucket) {
+            return (int) Math.floorMod(bucket, (long) bucketCount);
+        }
+    }
+}
@@ -8,4 +8,9 @@ import java.lang.annotation.Target;
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface EnableReturnValueLogging {
+    //fraction of the calls that are logged, 1.0 logs every call
+    double sampleRate() default 1.0;
+
+    //the rendered value is cut off after this many characters
+    int maxLength() default 512;
 }
@@ -0,0 +1,86 @@
+package com.epam.training.food.cache;
+
+import com.epam.training.food.event.CustomerChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+//short-lived username -> (customer id, password digest) entries, so repeated login attempts skip the credential query
+@Component
+public class AuthenticationCache {
+    //share of the entries dropped at once when the cap is reached, so the scan is not repeated on every login
+    private static final int EVICTION_DIVISOR = 100;
+
+    private final Map<String, CachedCredentials> credentialsByUserName = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxSize;
+
+    public AuthenticationCache(@Value("${authentication.cache.ttl:PT30S}") Duration ttl,
+                               @Value("${authentication.cache.max-size:10000}") int maxSize) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+    }
+
+    public CachedCredentials get(String userName) {
+        CachedCredentials cached = credentialsByUserName.get(userName);
+        if (cached == null) return null;
+
+        if (cached.expiresAtNanos() - System.nanoTime() <= 0) {
+            credentialsByUserName.remove(userName, cached);
+            return null;
+        }
+        return cached;
+    }
+
+    //customerId is null for a user name that does not exist, so guessing attempts are absorbed as well
+    public void put(String userName, Long customerId, byte[] passwordDigest) {
+        if (ttlNanos <= 0 || maxSize <= 0) return;
+
+        if (credentialsByUserName.size() >= maxSize && !credentialsByUserName.containsKey(userName)) {
+            makeRoom();
+        }
+        credentialsByUserName.put(userName, new CachedCredentials(customerId, passwordDigest, System.nanoTime() + ttlNanos));
+    }
+
+    public void invalidate(String userName) {
+        credentialsByUserName.remove(userName);
+    }
+
+    //a user name that was just registered may still be cached as unknown
+    @EventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        invalidate(event.userName());
+    }
+
+    public int size() {
+        return credentialsByUserName.size();
+    }
+
+    //expired entries go first; if none have expired, the oldest ones are dropped, all entries share one TTL
+    private void makeRoom() {
+        long now = System.nanoTime();
+        credentialsByUserName.values().removeIf(cached -> cached.expiresAtNanos() - now <= 0);
+        if (credentialsByUserName.size() < maxSize) return;
+
+        int count = Math.max(1, maxSize / EVICTION_DIVISOR);
+        PriorityQueue<Map.Entry<String, CachedCredentials>> newestOfOldest = new PriorityQueue<>(count + 1,
+                Comparator.comparingLong((Map.Entry<String, CachedCredentials> entry) -> entry.getValue().expiresAtNanos()).reversed());
+        for (Map.Entry<String, CachedCredentials> entry : credentialsByUserName.entrySet()) {
+            newestOfOldest.add(entry);
+            if (newestOfOldest.size() > count) newestOfOldest.poll();
+        }
+        newestOfOldest.forEach(entry -> credentialsByUserName.remove(entry.getKey(), entry.getValue()));
+    }
+
+    public record CachedCredentials(Long customerId, byte[] passwordDigest, long expiresAtNanos) {
+        public boolean isUnknownUser() {
+            return customerId == null;
+        }
+    }
+}
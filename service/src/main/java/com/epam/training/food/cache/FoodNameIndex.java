@@ -0,0 +1,52 @@
+package com.epam.training.food.cache;
+
+import com.epam.training.food.domain.Food;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+//immutable, case-insensitive name index: hash lookup for exact names, sorted keys for prefix matching
+public final class FoodNameIndex {
+    private final Map<String, Food> byName;
+    private final NavigableMap<String, Food> sortedByName;
+
+    private FoodNameIndex(Map<String, Food> byName, NavigableMap<String, Food> sortedByName) {
+        this.byName = byName;
+        this.sortedByName = sortedByName;
+    }
+
+    public static FoodNameIndex of(Collection<Food> foods) {
+        Map<String, Food> byName = new HashMap<>();
+        NavigableMap<String, Food> sortedByName = new TreeMap<>();
+        for (Food food : foods) {
+            String key = normalize(food.getName());
+            byName.put(key, food);
+            sortedByName.put(key, food);
+        }
+        return new FoodNameIndex(byName, sortedByName);
+    }
+
+    public Optional<Food> find(String name) {
+        return Optional.ofNullable(byName.get(normalize(name)));
+    }
+
+    public List<Food> findByPrefix(String prefix) {
+        String key = normalize(prefix);
+        return new ArrayList<>(sortedByName.subMap(key, true, key + Character.MAX_VALUE, false).values());
+    }
+
+    public int size() {
+        return byName.size();
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,122 @@
+package com.epam.training.food.cache;
+
+import com.epam.training.food.domain.Food;
+import com.epam.training.food.event.FoodChangedEvent;
+import com.epam.training.food.repository.FoodRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class MenuCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MenuCache.class);
+
+    private final FoodRepository foodRepository;
+    private final long ttlNanos;
+    private final int maxSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    //bumped on every invalidation, a reload started before it must not publish its stale snapshot
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot snapshot;
+    //guarded by reload(), so an oversized menu is reported once rather than on every listing
+    private boolean oversizeReported;
+
+    public MenuCache(FoodRepository foodRepository,
+                     @Value("${menu.cache.ttl:PT5M}") Duration ttl,
+                     @Value("${menu.cache.max-size:1000}") int maxSize) {
+        this.foodRepository = foodRepository;
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+    }
+
+    public List<Food> getAllFood() {
+        return current().foods();
+    }
+
+    public Optional<Food> findById(Long id) {
+        return Optional.ofNullable(current().byId().get(id));
+    }
+
+    public Optional<Food> findByName(String name) {
+        return current().nameIndex().find(name);
+    }
+
+    public FoodNameIndex getNameIndex() {
+        return current().nameIndex();
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    @EventListener
+    public void onFoodChanged(FoodChangedEvent event) {
+        LOGGER.debug("Food [{}] changed, invalidating menu cache", event.foodId());
+        invalidate();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null && current.isFresh(System.nanoTime())) {
+            hits.increment();
+            return current;
+        }
+        misses.increment();
+        return reload();
+    }
+
+    private synchronized Snapshot reload() {
+        Snapshot current = snapshot;
+        if (current != null && current.isFresh(System.nanoTime())) return current;
+
+        long loadedGeneration = generation.get();
+        Snapshot loaded = Snapshot.of(foodRepository.findAll(), System.nanoTime() + ttlNanos);
+
+        //a menu above the cap is served straight from the repository instead of being pinned in memory
+        if (loaded.foods().size() > maxSize) {
+            if (!oversizeReported) {
+                LOGGER.warn("Menu has {} items, more than the cache limit of {}; it will not be cached", loaded.foods().size(), maxSize);
+                oversizeReported = true;
+            }
+        } else {
+            oversizeReported = false;
+            if (generation.get() == loadedGeneration) snapshot = loaded;
+        }
+        return loaded;
+    }
+
+    private record Snapshot(List<Food> foods, Map<Long, Food> byId, FoodNameIndex nameIndex, long expiresAtNanos) {
+        static Snapshot of(List<Food> foods, long expiresAtNanos) {
+            Map<Long, Food> byId = new HashMap<>();
+            for (Food food : foods) {
+                byId.put(food.getId(), food);
+            }
+            return new Snapshot(List.copyOf(foods), byId, FoodNameIndex.of(foods), expiresAtNanos);
+        }
+
+        boolean isFresh(long nowNanos) {
+            return expiresAtNanos - nowNanos > 0;
+        }
+    }
+}
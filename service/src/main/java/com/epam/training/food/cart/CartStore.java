@@ -0,0 +1,20 @@
+package com.epam.training.food.cart;
+
+import com.epam.training.food.domain.Cart;
+
+//shopping carts keyed by customer id; callers hold the customer's lock while they use a cart
+//and hand a changed cart back with putCart, as a store may keep a copy outside the heap
+public interface CartStore {
+
+    //the customer's cart, an empty one is created when there is none
+    Cart getCart(long customerId);
+
+    void putCart(long customerId, Cart cart);
+
+    Cart remove(long customerId);
+
+    int size();
+
+    //drops the carts idle for longer than the TTL and gives their reservations back, returns how many were dropped
+    int evictIdle();
+}
@@ -0,0 +1,136 @@
+package com.epam.training.food.cart;
+
+import com.epam.training.food.domain.Cart;
+import com.epam.training.food.inventory.InventoryService;
+import com.epam.training.food.service.CustomerLocks;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.function.LongSupplier;
+
+@Component
+@ConditionalOnProperty(name = "cart.store.type", havingValue = "memory", matchIfMissing = true)
+public class InMemoryCartStore implements CartStore {
+    //share of the carts dropped at once when the cap is reached, so the LRU scan is not repeated on every new cart
+    private static final int LRU_EVICTION_DIVISOR = 100;
+
+    private final CustomerLocks customerLocks;
+    private final InventoryService inventoryService;
+    private final long idleTtlNanos;
+    private final int maxCarts;
+    private final LongSupplier nanoClock;
+    private final Map<Long, Entry> carts = new ConcurrentHashMap<>();
+
+    @Autowired
+    public InMemoryCartStore(CustomerLocks customerLocks,
+                             InventoryService inventoryService,
+                             @Value("${cart.store.idle-ttl:PT30M}") Duration idleTtl,
+                             @Value("${cart.store.max-carts:100000}") int maxCarts) {
+        this(customerLocks, inventoryService, idleTtl, maxCarts, System::nanoTime);
+    }
+
+    InMemoryCartStore(CustomerLocks customerLocks, InventoryService inventoryService, Duration idleTtl, int maxCarts,
+                      LongSupplier nanoClock) {
+        this.customerLocks = customerLocks;
+        this.inventoryService = inventoryService;
+        this.idleTtlNanos = idleTtl.toNanos();
+        this.maxCarts = maxCarts;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public Cart getCart(long customerId) {
+        Entry entry = carts.get(customerId);
+        if (entry == null) {
+            makeRoom();
+            entry = carts.computeIfAbsent(customerId, id -> new Entry(Cart.getEmptyCart(), nanoClock.getAsLong()));
+        }
+        entry.touch(nanoClock.getAsLong());
+        return entry.cart;
+    }
+
+    @Override
+    public void putCart(long customerId, Cart cart) {
+        Entry entry = carts.get(customerId);
+        if (entry != null && entry.cart == cart) {
+            entry.touch(nanoClock.getAsLong());
+            return;
+        }
+        if (entry == null) makeRoom();
+        carts.put(customerId, new Entry(cart, nanoClock.getAsLong()));
+    }
+
+    @Override
+    public Cart remove(long customerId) {
+        Entry entry = carts.remove(customerId);
+        return entry == null ? null : entry.cart;
+    }
+
+    @Override
+    public int size() {
+        return carts.size();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${cart.store.eviction-interval:PT1M}")
+    public int evictIdle() {
+        long now = nanoClock.getAsLong();
+        int evicted = 0;
+        for (Map.Entry<Long, Entry> entry : carts.entrySet()) {
+            if (now - entry.getValue().lastAccessNanos > idleTtlNanos && evict(entry.getKey(), entry.getValue())) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    private void makeRoom() {
+        if (carts.size() < maxCarts) return;
+        if (evictIdle() > 0) return;
+
+        int count = Math.max(1, maxCarts / LRU_EVICTION_DIVISOR);
+        PriorityQueue<Map.Entry<Long, Entry>> newestOfOldest = new PriorityQueue<>(count + 1,
+                Comparator.comparingLong((Map.Entry<Long, Entry> entry) -> entry.getValue().lastAccessNanos).reversed());
+        for (Map.Entry<Long, Entry> entry : carts.entrySet()) {
+            newestOfOldest.add(entry);
+            if (newestOfOldest.size() > count) newestOfOldest.poll();
+        }
+        newestOfOldest.forEach(entry -> evict(entry.getKey(), entry.getValue()));
+    }
+
+    //a cart in use holds its customer's lock and is skipped
+    private boolean evict(long customerId, Entry entry) {
+        Lock lock = customerLocks.forCustomer(customerId);
+        if (!lock.tryLock()) return false;
+        try {
+            if (!carts.remove(customerId, entry)) return false;
+            inventoryService.release(entry.cart);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class Entry {
+        private final Cart cart;
+        private volatile long lastAccessNanos;
+
+        Entry(Cart cart, long nowNanos) {
+            this.cart = cart;
+            this.lastAccessNanos = nowNanos;
+        }
+
+        void touch(long nowNanos) {
+            lastAccessNanos = nowNanos;
+        }
+    }
+}
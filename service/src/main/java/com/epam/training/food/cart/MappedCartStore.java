@@ -0,0 +1,291 @@
+package com.epam.training.food.cart;
+
+import com.epam.training.food.cache.MenuCache;
+import com.epam.training.food.domain.Cart;
+import com.epam.training.food.domain.Food;
+import com.epam.training.food.domain.Money;
+import com.epam.training.food.domain.OrderItem;
+import com.epam.training.food.inventory.InventoryService;
+import com.epam.training.food.service.CustomerLocks;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.function.LongSupplier;
+
+//carts kept outside the heap in fixed-size slots of one direct buffer, or of a memory-mapped file when a path is set,
+//so abandoned carts cost no GC work; only the slot index is on the heap. The buffer starts with the layout it was
+//written with, [int magic][int version][int slot size][int max carts], followed by the slots, each laid out as
+//  [long customer id, 0 when free][long last access millis][long price cents][short items][short reservations]
+//  items: [long food id][int pieces][long price cents], reservations: [long food id][int pieces]
+@Component
+@ConditionalOnProperty(name = "cart.store.type", havingValue = "mapped")
+public class MappedCartStore implements CartStore {
+    private static final int MAGIC = 0x43415254;
+    private static final int VERSION = 1;
+    private static final int LAYOUT_BYTES = Integer.BYTES * 4;
+    private static final int HEADER_BYTES = Long.BYTES * 3 + Short.BYTES * 2;
+    private static final int ITEM_BYTES = Long.BYTES * 2 + Integer.BYTES;
+    private static final int RESERVATION_BYTES = Long.BYTES + Integer.BYTES;
+
+    private final CustomerLocks customerLocks;
+    private final InventoryService inventoryService;
+    private final MenuCache menuCache;
+    private final long idleTtlMillis;
+    private final int slotSize;
+    //only absolute gets and puts are used, so threads working on different slots do not interfere
+    private final ByteBuffer slots;
+    private final Map<Long, Integer> slotByCustomerId = new ConcurrentHashMap<>();
+    private final Queue<Integer> freeSlots = new ConcurrentLinkedQueue<>();
+    //wall clock millis, the access times outlive the process in a mapped file
+    private final LongSupplier millisClock;
+
+    @Autowired
+    public MappedCartStore(CustomerLocks customerLocks,
+                           InventoryService inventoryService,
+                           MenuCache menuCache,
+                           @Value("${cart.store.idle-ttl:PT30M}") Duration idleTtl,
+                           @Value("${cart.store.max-carts:100000}") int maxCarts,
+                           @Value("${cart.store.mapped.slot-size:1024}") int slotSize,
+                           @Value("${cart.store.mapped.path:}") String path) throws IOException {
+        this(customerLocks, inventoryService, menuCache, idleTtl, maxCarts, slotSize, path, System::currentTimeMillis);
+    }
+
+    MappedCartStore(CustomerLocks customerLocks, InventoryService inventoryService, MenuCache menuCache, Duration idleTtl,
+                    int maxCarts, int slotSize, String path, LongSupplier millisClock) throws IOException {
+        this.customerLocks = customerLocks;
+        this.inventoryService = inventoryService;
+        this.menuCache = menuCache;
+        this.idleTtlMillis = idleTtl.toMillis();
+        this.slotSize = slotSize;
+        this.millisClock = millisClock;
+
+        if (slotSize < HEADER_BYTES) {
+            throw new IllegalArgumentException("cart.store.mapped.slot-size must be at least " + HEADER_BYTES + " bytes, was " + slotSize);
+        }
+        long capacity = LAYOUT_BYTES + (long) maxCarts * slotSize;
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("cart.store.max-carts x slot-size must stay below 2 GB, was " + capacity);
+        }
+        this.slots = path.isEmpty() ? ByteBuffer.allocateDirect((int) capacity) : map(Path.of(path), (int) capacity);
+        if (slots.getInt(0) == 0) {
+            writeLayout(maxCarts);
+        } else {
+            checkLayout(maxCarts, path);
+        }
+        recoverSlots(maxCarts);
+    }
+
+    @Override
+    public Cart getCart(long customerId) {
+        Integer slot = slotByCustomerId.get(customerId);
+        if (slot == null) {
+            Cart cart = Cart.getEmptyCart();
+            putCart(customerId, cart);
+            return cart;
+        }
+        touch(slot);
+        return read(slot);
+    }
+
+    @Override
+    public void putCart(long customerId, Cart cart) {
+        List<OrderItem> items = cart.getOrderItems();
+        Map<Long, Integer> reservations = cart.getReservations();
+        int size = HEADER_BYTES + items.size() * ITEM_BYTES + reservations.size() * RESERVATION_BYTES;
+        if (size > slotSize) {
+            throw new IllegalStateException("Cart of customer " + customerId + " does not fit into a slot of " + slotSize + " bytes");
+        }
+
+        //not computeIfAbsent, allocating may evict other carts from the same map
+        Integer slot = slotByCustomerId.get(customerId);
+        if (slot == null) {
+            slot = allocate(customerId);
+            Integer existing = slotByCustomerId.putIfAbsent(customerId, slot);
+            if (existing != null) {
+                free(slot);
+                slot = existing;
+            }
+        }
+        write(slot, customerId, cart.getPrice(), items, reservations);
+    }
+
+    @Override
+    public Cart remove(long customerId) {
+        Integer slot = slotByCustomerId.remove(customerId);
+        if (slot == null) return null;
+
+        Cart cart = read(slot);
+        free(slot);
+        return cart;
+    }
+
+    @Override
+    public int size() {
+        return slotByCustomerId.size();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${cart.store.eviction-interval:PT1M}")
+    public int evictIdle() {
+        long now = millisClock.getAsLong();
+        int evicted = 0;
+        for (Map.Entry<Long, Integer> entry : slotByCustomerId.entrySet()) {
+            if (now - lastAccess(entry.getValue()) > idleTtlMillis && evict(entry.getKey(), entry.getValue())) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    private Integer allocate(long customerId) {
+        Integer slot = freeSlots.poll();
+        if (slot == null && evictIdle() > 0) slot = freeSlots.poll();
+        if (slot == null) slot = evictLeastRecentlyUsed();
+        if (slot == null) throw new IllegalStateException("No free cart slot for customer " + customerId);
+        return slot;
+    }
+
+    private Integer evictLeastRecentlyUsed() {
+        Map.Entry<Long, Integer> oldest = null;
+        for (Map.Entry<Long, Integer> entry : slotByCustomerId.entrySet()) {
+            if (oldest == null || lastAccess(entry.getValue()) < lastAccess(oldest.getValue())) oldest = entry;
+        }
+        if (oldest == null || !evict(oldest.getKey(), oldest.getValue())) return null;
+        return freeSlots.poll();
+    }
+
+    //a cart in use holds its customer's lock and is skipped
+    private boolean evict(long customerId, int slot) {
+        Lock lock = customerLocks.forCustomer(customerId);
+        if (!lock.tryLock()) return false;
+        try {
+            if (!slotByCustomerId.remove(customerId, slot)) return false;
+            inventoryService.release(read(slot));
+            free(slot);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void free(int slot) {
+        slots.putLong(offset(slot), 0L);
+        freeSlots.add(slot);
+    }
+
+    private void touch(int slot) {
+        slots.putLong(offset(slot) + Long.BYTES, millisClock.getAsLong());
+    }
+
+    private long lastAccess(int slot) {
+        return slots.getLong(offset(slot) + Long.BYTES);
+    }
+
+    private void write(int slot, long customerId, BigDecimal price, List<OrderItem> items, Map<Long, Integer> reservations) {
+        int position = offset(slot);
+        slots.putLong(position, customerId);
+        slots.putLong(position + 8, millisClock.getAsLong());
+        slots.putLong(position + 16, Money.toCents(price));
+        slots.putShort(position + 24, (short) items.size());
+        slots.putShort(position + 26, (short) reservations.size());
+        position += HEADER_BYTES;
+
+        for (OrderItem item : items) {
+            slots.putLong(position, item.getFood().getId());
+            slots.putInt(position + 8, item.getPieces());
+            slots.putLong(position + 12, item.getPriceCents());
+            position += ITEM_BYTES;
+        }
+        for (Map.Entry<Long, Integer> reservation : reservations.entrySet()) {
+            slots.putLong(position, reservation.getKey());
+            slots.putInt(position + 8, reservation.getValue());
+            position += RESERVATION_BYTES;
+        }
+    }
+
+    private Cart read(int slot) {
+        int position = offset(slot);
+        long priceCents = slots.getLong(position + 16);
+        int itemCount = slots.getShort(position + 24);
+        int reservationCount = slots.getShort(position + 26);
+        position += HEADER_BYTES;
+
+        List<OrderItem> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++, position += ITEM_BYTES) {
+            Optional<Food> food = menuCache.findById(slots.getLong(position));
+            //a dish taken off the menu since is dropped from the cart
+            if (food.isPresent()) {
+                items.add(new OrderItem(food.get(), slots.getInt(position + 8), slots.getLong(position + 12)));
+            }
+        }
+
+        Cart cart = new Cart();
+        cart.setOrderItems(items);
+        cart.setPrice(Money.toBigDecimal(priceCents));
+        for (int i = 0; i < reservationCount; i++, position += RESERVATION_BYTES) {
+            cart.setReservedPieces(slots.getLong(position), slots.getInt(position + 8));
+        }
+        return cart;
+    }
+
+    private void writeLayout(int maxCarts) {
+        slots.putInt(0, MAGIC);
+        slots.putInt(4, VERSION);
+        slots.putInt(8, slotSize);
+        slots.putInt(12, maxCarts);
+    }
+
+    //slots of a file written with another layout would be read at the wrong offsets
+    private void checkLayout(int maxCarts, String path) {
+        if (slots.getInt(0) != MAGIC || slots.getInt(4) != VERSION) {
+            throw new IllegalStateException("Cart store file " + path + " was not written by this version of the cart store");
+        }
+        if (slots.getInt(8) != slotSize || slots.getInt(12) != maxCarts) {
+            throw new IllegalStateException("Cart store file " + path + " was written with slot-size " + slots.getInt(8)
+                    + " and max-carts " + slots.getInt(12) + ", configured are " + slotSize + " and " + maxCarts);
+        }
+    }
+
+    //carts of a mapped file outlive a restart; their reservations do not, as the stock counters start again from the
+    //food table, so they are cleared and taken again at checkout
+    private void recoverSlots(int maxCarts) {
+        for (int slot = 0; slot < maxCarts; slot++) {
+            long customerId = slots.getLong(offset(slot));
+            if (customerId == 0) {
+                freeSlots.add(slot);
+            } else {
+                slots.putShort(offset(slot) + 26, (short) 0);
+                slotByCustomerId.put(customerId, slot);
+            }
+        }
+    }
+
+    private int offset(int slot) {
+        return LAYOUT_BYTES + slot * slotSize;
+    }
+
+    private static MappedByteBuffer map(Path path, int capacity) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        }
+    }
+}
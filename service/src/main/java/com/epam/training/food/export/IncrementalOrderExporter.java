@@ -0,0 +1,117 @@
+package com.epam.training.food.export;
+
+import com.epam.training.food.data.ExportSummary;
+import com.epam.training.food.data.OrderWriter;
+import com.epam.training.food.domain.OrderDTO;
+import com.epam.training.food.service.DefaultFoodDeliveryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+
+//appends only the orders placed since the last run; the high-water mark (last exported order id, a fingerprint of
+//that order and the file length it was committed at) lives next to the export and is replaced by an atomic rename
+@Component
+public class IncrementalOrderExporter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(IncrementalOrderExporter.class);
+    private static final String LAST_ORDER_ID = "lastOrderId";
+    private static final String LAST_ORDER_FINGERPRINT = "lastOrderFingerprint";
+    private static final String COMMITTED_LENGTH = "committedLength";
+
+    private final DefaultFoodDeliveryService foodDeliveryService;
+    private final OrderWriter orderWriter;
+
+    public IncrementalOrderExporter(DefaultFoodDeliveryService foodDeliveryService, OrderWriter orderWriter) {
+        this.foodDeliveryService = foodDeliveryService;
+        this.orderWriter = orderWriter;
+    }
+
+    public ExportSummary export(Path outputPath) throws IOException {
+        Path markPath = highWaterMarkPath(outputPath);
+        HighWaterMark mark = readHighWaterMark(markPath);
+
+        try (FileChannel channel = FileChannel.open(outputPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            if (!isValid(mark, channel.size())) {
+                LOGGER.info("Order history of {} no longer matches its high-water mark, exporting it again", outputPath);
+                mark = HighWaterMark.EMPTY;
+            }
+            //drops whatever a crashed run appended after the last commit
+            channel.truncate(mark.committedLength());
+            channel.position(mark.committedLength());
+
+            //orders above the settled id may still be joined by lower ids committing late, they wait for the next run
+            long upToOrderId = foodDeliveryService.getLastSettledOrderId();
+            AtomicReference<OrderDTO> lastOrder = new AtomicReference<>();
+            ExportSummary summary = orderWriter.writeOrdersStreaming(
+                    foodDeliveryService.streamOrdersDTO(mark.lastOrderId(), upToOrderId).peek(lastOrder::set),
+                    channel);
+            channel.force(false);
+
+            HighWaterMark next = lastOrder.get() == null
+                    ? new HighWaterMark(mark.lastOrderId(), mark.lastOrderFingerprint(), channel.position())
+                    : new HighWaterMark(lastOrder.get().orderId(), fingerprint(lastOrder.get()), channel.position());
+            writeHighWaterMark(markPath, next);
+            return summary;
+        }
+    }
+
+    //the file was edited or replaced, or the order history is not the one the mark was taken from: the in-memory
+    //database starts over on every start and hands out the same ids again, so the last exported order has to still
+    //be there with the same customer and creation time
+    private boolean isValid(HighWaterMark mark, long fileLength) {
+        if (fileLength < mark.committedLength()) return false;
+        if (mark.lastOrderId() == 0) return true;
+
+        return foodDeliveryService.streamOrdersDTO(mark.lastOrderId() - 1, mark.lastOrderId())
+                .findFirst()
+                .map(order -> fingerprint(order).equals(mark.lastOrderFingerprint()))
+                .orElse(false);
+    }
+
+    private static String fingerprint(OrderDTO order) {
+        return order.customerId() + "@" + order.timestampCreated();
+    }
+
+    private static HighWaterMark readHighWaterMark(Path markPath) throws IOException {
+        if (!Files.exists(markPath)) return HighWaterMark.EMPTY;
+
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(markPath)) {
+            properties.load(in);
+        }
+        return new HighWaterMark(Long.parseLong(properties.getProperty(LAST_ORDER_ID, "0")),
+                properties.getProperty(LAST_ORDER_FINGERPRINT, ""),
+                Long.parseLong(properties.getProperty(COMMITTED_LENGTH, "0")));
+    }
+
+    private static void writeHighWaterMark(Path markPath, HighWaterMark mark) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(LAST_ORDER_ID, Long.toString(mark.lastOrderId()));
+        properties.setProperty(LAST_ORDER_FINGERPRINT, mark.lastOrderFingerprint());
+        properties.setProperty(COMMITTED_LENGTH, Long.toString(mark.committedLength()));
+
+        Path tempPath = markPath.resolveSibling(markPath.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tempPath)) {
+            properties.store(out, null);
+        }
+        Files.move(tempPath, markPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static Path highWaterMarkPath(Path outputPath) {
+        return outputPath.resolveSibling(outputPath.getFileName() + ".hwm");
+    }
+
+    private record HighWaterMark(long lastOrderId, String lastOrderFingerprint, long committedLength) {
+        static final HighWaterMark EMPTY = new HighWaterMark(0, "", 0);
+    }
+}
@@ -0,0 +1,144 @@
+package com.epam.training.food.export;
+
+import com.epam.training.food.data.ExportSummary;
+import com.epam.training.food.data.OrderWriter;
+import com.epam.training.food.repository.OrderRepository;
+import com.epam.training.food.service.DefaultFoodDeliveryService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//splits the order id range into shards that are read and formatted in parallel, one part file per shard
+@Component
+public class ShardedOrderExporter {
+    private final DefaultFoodDeliveryService foodDeliveryService;
+    private final OrderRepository orderRepository;
+    private final OrderWriter orderWriter;
+    private final int shards;
+
+    public ShardedOrderExporter(DefaultFoodDeliveryService foodDeliveryService,
+                                OrderRepository orderRepository,
+                                OrderWriter orderWriter,
+                                @Value("${orders.export.shards:0}") int shards) {
+        this.foodDeliveryService = foodDeliveryService;
+        this.orderRepository = orderRepository;
+        this.orderWriter = orderWriter;
+        this.shards = shards > 0 ? shards : Runtime.getRuntime().availableProcessors();
+    }
+
+    //with merge the parts are concatenated in id order into outputPath and deleted, otherwise they are left next to it;
+    //either way the result replaces what an earlier run left there, an empty history included
+    public ExportSummary export(Path outputPath, boolean merge) throws IOException, InterruptedException {
+        deleteParts(outputPath);
+        List<ShardPart> parts = writeShards(outputPath);
+        long rows = 0;
+        long bytes = 0;
+        for (ShardPart part : parts) {
+            rows += part.summary().rows();
+            bytes += part.summary().bytes();
+        }
+
+        //truncates outputPath even without parts
+        if (merge) {
+            mergeParts(parts, outputPath);
+        }
+        return new ExportSummary(rows, bytes);
+    }
+
+    private List<ShardPart> writeShards(Path outputPath) throws IOException, InterruptedException {
+        Long minOrderId = orderRepository.findMinOrderId();
+        Long maxOrderId = orderRepository.findMaxOrderId();
+        if (minOrderId == null) return List.of();
+
+        List<long[]> ranges = shardRanges(minOrderId - 1, maxOrderId, shards);
+        ExecutorService executor = Executors.newFixedThreadPool(ranges.size(), exportThreadFactory());
+        try {
+            List<Future<ShardPart>> futures = new ArrayList<>(ranges.size());
+            for (int shard = 0; shard < ranges.size(); shard++) {
+                long[] range = ranges.get(shard);
+                Path part = partPath(outputPath, shard);
+                futures.add(executor.submit(() -> new ShardPart(part,
+                        orderWriter.writeOrdersStreaming(foodDeliveryService.streamOrdersDTO(range[0], range[1]), part))));
+            }
+
+            List<ShardPart> parts = new ArrayList<>(futures.size());
+            for (Future<ShardPart> future : futures) {
+                parts.add(future.get());
+            }
+            return parts;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) throw ioException;
+            throw new IllegalStateException("Order export shard failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    //(after, upTo] ranges of roughly equal width covering (afterOrderId, maxOrderId]
+    static List<long[]> shardRanges(long afterOrderId, long maxOrderId, int shards) {
+        long width = Math.max(1, (maxOrderId - afterOrderId + shards - 1) / shards);
+        List<long[]> ranges = new ArrayList<>(shards);
+        for (long after = afterOrderId; after < maxOrderId; after += width) {
+            ranges.add(new long[]{after, Math.min(after + width, maxOrderId)});
+        }
+        return ranges;
+    }
+
+    private static void mergeParts(List<ShardPart> parts, Path outputPath) throws IOException {
+        try (FileChannel target = FileChannel.open(outputPath,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (ShardPart part : parts) {
+                try (FileChannel source = FileChannel.open(part.path(), StandardOpenOption.READ)) {
+                    long size = source.size();
+                    for (long position = 0; position < size; ) {
+                        position += source.transferTo(position, size - position, target);
+                    }
+                }
+                Files.delete(part.path());
+            }
+        }
+    }
+
+    //an earlier run with more shards leaves parts this run does not overwrite
+    private static void deleteParts(Path outputPath) throws IOException {
+        Path directory = outputPath.toAbsolutePath().getParent();
+        String prefix = outputPath.getFileName() + ".part-";
+        try (DirectoryStream<Path> parts = Files.newDirectoryStream(directory,
+                path -> path.getFileName().toString().startsWith(prefix)
+                        && path.getFileName().toString().substring(prefix.length()).matches("\\d{3,}"))) {
+            for (Path part : parts) {
+                Files.delete(part);
+            }
+        }
+    }
+
+    private static Path partPath(Path outputPath, int shard) {
+        return outputPath.resolveSibling(String.format("%s.part-%03d", outputPath.getFileName(), shard));
+    }
+
+    private static ThreadFactory exportThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "order-export-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record ShardPart(Path path, ExportSummary summary) {
+    }
+}
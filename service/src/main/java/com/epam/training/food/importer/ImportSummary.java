@@ -0,0 +1,4 @@
+package com.epam.training.food.importer;
+
+public record ImportSummary(long read, long imported, long rejected) {
+}
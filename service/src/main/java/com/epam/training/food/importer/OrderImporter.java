@@ -0,0 +1,271 @@
+package com.epam.training.food.importer;
+
+import com.epam.training.food.cache.MenuCache;
+import com.epam.training.food.data.ColumnarExportFormat;
+import com.epam.training.food.data.ColumnarOrderReader;
+import com.epam.training.food.data.OrderCsvReader;
+import com.epam.training.food.domain.Cart;
+import com.epam.training.food.domain.Customer;
+import com.epam.training.food.domain.Food;
+import com.epam.training.food.domain.Money;
+import com.epam.training.food.domain.OrderDTO;
+import com.epam.training.food.domain.OrderItem;
+import com.epam.training.food.domain.OrderItemDTO;
+import com.epam.training.food.repository.CustomerRepository;
+import com.epam.training.food.service.DefaultFoodDeliveryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+//bulk order import: rows are read in chunks, every order of a chunk is validated in parallel against the menu and
+//its customer, the customer balances are then checked in file order and the valid orders are placed with one
+//createOrders call per chunk; every rejected order ends up in the reject report with its reason. The source ids of
+//the placed orders are appended to <input>.imported, so importing the same file again skips them instead of placing
+//them twice
+@Component
+public class OrderImporter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrderImporter.class);
+
+    private final DefaultFoodDeliveryService foodDeliveryService;
+    private final CustomerRepository customerRepository;
+    private final MenuCache menuCache;
+    private final int chunkSize;
+
+    public OrderImporter(DefaultFoodDeliveryService foodDeliveryService,
+                         CustomerRepository customerRepository,
+                         MenuCache menuCache,
+                         @Value("${orders.import.chunk-size:1000}") int chunkSize) {
+        this.foodDeliveryService = foodDeliveryService;
+        this.customerRepository = customerRepository;
+        this.menuCache = menuCache;
+        this.chunkSize = chunkSize;
+    }
+
+    //reads the columnar format for files ending in its extension, the CSV written by OrderWriter otherwise
+    public ImportSummary importOrders(Path inputPath, Path rejectReportPath) throws IOException {
+        boolean columnar = inputPath.getFileName().toString().endsWith(new ColumnarExportFormat().getFileExtension());
+        Path importedPath = inputPath.resolveSibling(inputPath.getFileName() + ".imported");
+        Set<Long> importedOrderIds = readImportedOrderIds(importedPath);
+
+        try (InputStream in = Files.newInputStream(inputPath);
+             BufferedWriter rejectReport = Files.newBufferedWriter(rejectReportPath, StandardCharsets.UTF_8);
+             BufferedWriter importedLog = Files.newBufferedWriter(importedPath, StandardCharsets.UTF_8,
+                     StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            rejectReport.write("orderId,reason");
+            rejectReport.newLine();
+            Chunker chunker = new Chunker(rejectReport, importedLog, importedOrderIds);
+
+            try {
+                if (columnar) {
+                    new ColumnarOrderReader().read(in, chunker::add);
+                } else {
+                    new OrderCsvReader().read(in, chunker::add, chunker::malformed);
+                }
+                chunker.flush();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            ImportSummary summary = new ImportSummary(chunker.read, chunker.imported, chunker.rejected);
+            LOGGER.info("Imported {} of {} order(s) from {}, {} rejected", summary.imported(), summary.read(), inputPath, summary.rejected());
+            return summary;
+        }
+    }
+
+    //a crash between placing a chunk and appending its ids leaves that chunk to be placed again by the next import
+    private static Set<Long> readImportedOrderIds(Path importedPath) throws IOException {
+        if (!Files.exists(importedPath)) return new HashSet<>();
+
+        try (Stream<String> lines = Files.lines(importedPath, StandardCharsets.UTF_8)) {
+            return lines.filter(line -> !line.isEmpty()).map(Long::valueOf).collect(Collectors.toCollection(HashSet::new));
+        }
+    }
+
+    private final class Chunker {
+        private final BufferedWriter rejectReport;
+        private final BufferedWriter importedLog;
+        private final Set<Long> importedOrderIds;
+        private final List<OrderDTO> chunk = new ArrayList<>(chunkSize);
+        private long read;
+        private long imported;
+        private long rejected;
+
+        Chunker(BufferedWriter rejectReport, BufferedWriter importedLog, Set<Long> importedOrderIds) {
+            this.rejectReport = rejectReport;
+            this.importedLog = importedLog;
+            this.importedOrderIds = importedOrderIds;
+        }
+
+        void add(OrderDTO order) {
+            read++;
+            if (importedOrderIds.contains(order.orderId())) {
+                reject(order, "already imported");
+                return;
+            }
+            chunk.add(order);
+            if (chunk.size() == chunkSize) flush();
+        }
+
+        void malformed(String reason) {
+            reject(null, reason);
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) return;
+            importChunk(chunk);
+            chunk.clear();
+        }
+
+        private void importChunk(List<OrderDTO> orders) {
+            Set<Long> customerIds = orders.stream().map(OrderDTO::customerId).collect(Collectors.toSet());
+            Map<Long, Customer> customers = customerRepository.findAllById(customerIds).stream()
+                    .collect(Collectors.toMap(Customer::getId, Function.identity()));
+
+            //order and item checks need no shared state, so they run on all cores
+            List<ValidatedOrder> validated = orders.parallelStream()
+                    .map(order -> validate(order, customers))
+                    .collect(Collectors.toList());
+
+            //balances are spent in file order, so this pass is sequential
+            Map<Long, Long> remainingCents = new HashMap<>();
+            List<ValidatedOrder> accepted = new ArrayList<>(validated.size());
+            for (ValidatedOrder order : validated) {
+                if (order.rejectReason() != null) {
+                    reject(order.source(), order.rejectReason());
+                    continue;
+                }
+                Customer customer = customers.get(order.source().customerId());
+                long remaining = remainingCents.getOrDefault(customer.getId(), customer.getBalanceCents());
+                long priceCents = order.cart().getItemsTotalCents();
+                if (remaining < priceCents) {
+                    reject(order.source(), "insufficient balance");
+                    continue;
+                }
+                remainingCents.put(customer.getId(), remaining - priceCents);
+                accepted.add(order);
+            }
+
+            place(accepted, customers);
+        }
+
+        //one transaction for the chunk; if it fails (balance changed meanwhile, stock ran out) each order is retried alone
+        private void place(List<ValidatedOrder> orders, Map<Long, Customer> customers) {
+            if (orders.isEmpty()) return;
+            try {
+                foodDeliveryService.createOrders(orders.stream()
+                        .map(order -> withCart(customers.get(order.source().customerId()), order.cart()))
+                        .collect(Collectors.toList()));
+                imported += orders.size();
+                orders.forEach(this::recordImported);
+                flushImportedLog();
+                return;
+            } catch (RuntimeException e) {
+                LOGGER.info("Chunk of {} order(s) failed ({}), placing them one by one", orders.size(), e.getMessage());
+            }
+
+            for (ValidatedOrder order : orders) {
+                try {
+                    foodDeliveryService.createOrder(withCart(customers.get(order.source().customerId()), order.cart()));
+                    imported++;
+                    recordImported(order);
+                } catch (RuntimeException e) {
+                    reject(order.source(), e.getMessage());
+                }
+            }
+            flushImportedLog();
+        }
+
+        private void recordImported(ValidatedOrder order) {
+            importedOrderIds.add(order.source().orderId());
+            try {
+                importedLog.write(order.source().orderId().toString());
+                importedLog.newLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void flushImportedLog() {
+            try {
+                importedLog.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void reject(OrderDTO order, String reason) {
+            rejected++;
+            try {
+                rejectReport.write(order == null ? "" : order.orderId().toString());
+                rejectReport.write(",\"");
+                rejectReport.write(String.valueOf(reason).replace("\"", "\"\""));
+                rejectReport.write('"');
+                rejectReport.newLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private ValidatedOrder validate(OrderDTO order, Map<Long, Customer> customers) {
+        if (!customers.containsKey(order.customerId())) return ValidatedOrder.rejected(order, "unknown customer " + order.customerId());
+        if (order.orderItemDTOList().isEmpty()) return ValidatedOrder.rejected(order, "order has no items");
+
+        try {
+            Cart cart = Cart.getEmptyCart();
+            Set<Long> foodIds = new HashSet<>();
+            for (OrderItemDTO item : order.orderItemDTOList()) {
+                Optional<Food> food = item.foodId() != null ? menuCache.findById(item.foodId()) : menuCache.findByName(item.foodName());
+                if (food.isEmpty()) return ValidatedOrder.rejected(order, "unknown food " + (item.foodId() != null ? item.foodId() : item.foodName()));
+                if (!foodIds.add(food.get().getId())) return ValidatedOrder.rejected(order, "food " + food.get().getName() + " appears twice");
+                if (item.pieces() <= 0) return ValidatedOrder.rejected(order, "pieces of " + food.get().getName() + " must be positive");
+
+                long expectedCents = Money.times(food.get().getPriceCents(), item.pieces());
+                if (Money.toCents(item.price()) != expectedCents) {
+                    return ValidatedOrder.rejected(order, "price of " + food.get().getName() + " is " + item.price()
+                            + ", expected " + Money.toBigDecimal(expectedCents));
+                }
+                cart.putItem(new OrderItem(food.get(), item.pieces(), expectedCents));
+            }
+
+            if (Money.toCents(order.price()) != cart.getItemsTotalCents()) {
+                return ValidatedOrder.rejected(order, "order total is " + order.price() + ", expected " + cart.getItemsTotal());
+            }
+            cart.setPrice(cart.getItemsTotal());
+            return new ValidatedOrder(order, cart, null);
+        } catch (ArithmeticException e) {
+            return ValidatedOrder.rejected(order, "invalid amount: " + e.getMessage());
+        }
+    }
+
+    //a detached copy per order, placeOrder only reads the id and the cart and loads the customer itself
+    private static Customer withCart(Customer customer, Cart cart) {
+        return new Customer(customer.getUserName(), customer.getPassword(), customer.getId(), customer.getName(), customer.getBalance(), cart);
+    }
+
+    private record ValidatedOrder(OrderDTO source, Cart cart, String rejectReason) {
+        static ValidatedOrder rejected(OrderDTO source, String reason) {
+            return new ValidatedOrder(source, null, reason);
+        }
+    }
+}
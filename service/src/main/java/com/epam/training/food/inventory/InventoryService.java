@@ -0,0 +1,203 @@
+package com.epam.training.food.inventory;
+
+import com.epam.training.food.domain.Cart;
+import com.epam.training.food.domain.Food;
+import com.epam.training.food.domain.Order;
+import com.epam.training.food.domain.OrderItem;
+import com.epam.training.food.event.FoodChangedEvent;
+import com.epam.training.food.repository.FoodRepository;
+import com.epam.training.food.service.OutOfStockException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+//the live stock of every dish is an in-memory counter; carts reserve from it, placed orders commit their reservations
+//and the sold portions are written back to the food table in one bulk update per dish and interval, so a popular dish
+//never becomes a row-lock hotspot. A change to a food row (a restock, say) resets the counter from the stored stock
+@Component
+public class InventoryService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(InventoryService.class);
+
+    private final FoodRepository foodRepository;
+    private final TransactionTemplate transactionTemplate;
+    //reads the stored stock after the changing transaction has committed, which is over but still bound to the thread
+    private final TransactionTemplate resyncTemplate;
+    private final Map<Long, FoodStock> stocks = new ConcurrentHashMap<>();
+
+    public InventoryService(FoodRepository foodRepository, PlatformTransactionManager transactionManager) {
+        this.foodRepository = foodRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.resyncTemplate = new TransactionTemplate(transactionManager);
+        this.resyncTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.resyncTemplate.setReadOnly(true);
+    }
+
+    //returns the portions that can still be reserved, Long.MAX_VALUE for a dish without a stock limit
+    public long getAvailable(Long foodId) {
+        return stockOf(foodId).available();
+    }
+
+    //brings the cart's reservation of the food to the given pieces, taking or giving back the difference
+    public void reserve(Cart cart, Food food, int pieces) throws OutOfStockException {
+        int reserved = cart.getReservedPieces(food.getId());
+        if (pieces > reserved) {
+            take(food.getId(), pieces - reserved);
+        } else if (pieces < reserved) {
+            stockOf(food.getId()).release(reserved - pieces);
+        }
+        cart.setReservedPieces(food.getId(), pieces);
+    }
+
+    //tops up the reservations of items that were put into the cart without one, all or nothing
+    public void reserveAll(Cart cart) throws OutOfStockException {
+        Map<Long, Integer> before = cart.getReservations();
+        try {
+            for (OrderItem item : cart.getOrderItems()) {
+                reserve(cart, item.getFood(), item.getPieces());
+            }
+        } catch (OutOfStockException e) {
+            for (OrderItem item : cart.getOrderItems()) {
+                reserve(cart, item.getFood(), before.getOrDefault(item.getFood().getId(), 0));
+            }
+            throw e;
+        }
+    }
+
+    //gives back whatever the cart reserved on top of an earlier snapshot of its reservations
+    public void restore(Cart cart, Map<Long, Integer> reservations) {
+        cart.getReservations().forEach((foodId, pieces) -> {
+            int before = reservations.getOrDefault(foodId, 0);
+            if (pieces > before) {
+                stockOf(foodId).release(pieces - before);
+                cart.setReservedPieces(foodId, before);
+            }
+        });
+    }
+
+    //the pieces of a placed order are sold, they stay out of the available stock and are reconciled to the table later
+    public void commit(Order order) {
+        for (OrderItem item : order.getOrderItems()) {
+            stockOf(item.getFood().getId()).sold.add(item.getPieces());
+        }
+    }
+
+    //gives every reservation of an abandoned cart back to the stock
+    public void release(Cart cart) {
+        cart.getReservations().forEach((foodId, pieces) -> {
+            stockOf(foodId).release(pieces);
+            cart.setReservedPieces(foodId, 0);
+        });
+    }
+
+    //the stored stock replaces the one the counter was started from; reservations and sold portions not reconciled
+    //yet are still claimed from it
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFoodChanged(FoodChangedEvent event) {
+        FoodStock stock = stocks.get(event.foodId());
+        if (stock == null) return;
+
+        synchronized (stock) {
+            Optional<Food> food = resyncTemplate.execute(status -> foodRepository.findById(event.foodId()));
+            if (food.isEmpty()) return;
+            stock.resetStored(food.get().getStock());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.reconcile-interval:PT5S}")
+    @PreDestroy
+    public void reconcile() {
+        stocks.forEach((foodId, stock) -> {
+            //a reset in between would read the table before the decrement and subtract it once more
+            synchronized (stock) {
+                long sold = stock.sold.sumThenReset();
+                if (sold == 0) return;
+                try {
+                    if (!stock.isUnlimited()) {
+                        transactionTemplate.executeWithoutResult(status -> foodRepository.decrementStock(foodId, sold));
+                    }
+                    stock.reconciled(sold);
+                } catch (RuntimeException e) {
+                    stock.sold.add(sold);
+                    LOGGER.warn("Unable to reconcile {} sold portion(s) of food {}", sold, foodId, e);
+                }
+            }
+        });
+    }
+
+    private void take(Long foodId, int pieces) {
+        if (!stockOf(foodId).tryTake(pieces)) {
+            throw new OutOfStockException("Not enough portions left of food " + foodId);
+        }
+    }
+
+    //not computeIfAbsent, the lookup would run JDBC while holding the map's bin lock
+    private FoodStock stockOf(Long foodId) {
+        FoodStock stock = stocks.get(foodId);
+        if (stock != null) return stock;
+
+        Long stored = foodRepository.findById(foodId)
+                .map(Food::getStock)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown food " + foodId));
+        FoodStock loaded = new FoodStock(stored);
+        FoodStock existing = stocks.putIfAbsent(foodId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    //available = stored - claimed, where claimed counts the reserved portions and the sold ones not yet reconciled;
+    //only claimed changes on the request path and it does so lock-free
+    private static final class FoodStock {
+        private final AtomicLong claimed = new AtomicLong();
+        //committed since the last reconcile, also part of claimed
+        private final LongAdder sold = new LongAdder();
+        private volatile long stored;
+        private volatile boolean unlimited;
+
+        FoodStock(Long stock) {
+            resetStored(stock);
+        }
+
+        boolean isUnlimited() {
+            return unlimited;
+        }
+
+        long available() {
+            return unlimited ? Long.MAX_VALUE : Math.max(0, stored - claimed.get());
+        }
+
+        boolean tryTake(int pieces) {
+            long current;
+            do {
+                current = claimed.get();
+                if (!unlimited && stored - current < pieces) return false;
+            } while (!claimed.compareAndSet(current, current + pieces));
+            return true;
+        }
+
+        void release(int pieces) {
+            claimed.addAndGet(-pieces);
+        }
+
+        //the table was decremented by the sold portions, which leave claimed as they leave the stored stock
+        void reconciled(long pieces) {
+            stored -= pieces;
+            claimed.addAndGet(-pieces);
+        }
+
+        void resetStored(Long stock) {
+            unlimited = stock == null;
+            stored = unlimited ? 0 : stock;
+        }
+    }
+}
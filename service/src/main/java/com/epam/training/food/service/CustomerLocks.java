@@ -0,0 +1,42 @@
+package com.epam.training.food.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+//a fixed set of lock stripes, customers hashing to the same stripe share it, so memory does not grow with customers
+@Component
+public class CustomerLocks {
+    private static final int STRIPES = 64;
+
+    private final Lock[] stripes = new Lock[STRIPES];
+
+    public CustomerLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public Lock forCustomer(long customerId) {
+        return stripes[stripeIndex(customerId)];
+    }
+
+    //distinct stripes in index order, acquiring them in this order cannot deadlock with another batch
+    public List<Lock> forCustomers(Collection<Long> customerIds) {
+        return customerIds.stream()
+                .map(CustomerLocks::stripeIndex)
+                .distinct()
+                .sorted()
+                .map(index -> stripes[index])
+                .collect(Collectors.toList());
+    }
+
+    static int stripeIndex(long customerId) {
+        long hash = customerId * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 58) & (STRIPES - 1);
+    }
+}
@@ -1,33 +1,79 @@
 package com.epam.training.food.service;
 
+import com.epam.training.food.analytics.OrderAggregates;
+import com.epam.training.food.analytics.SalesWindow;
+import com.epam.training.food.analytics.SalesWindows;
 import com.epam.training.food.aspect.EnableArgumentLogging;
 import com.epam.training.food.aspect.EnableExecutionTimeLogging;
 import com.epam.training.food.aspect.EnableReturnValueLogging;
+import com.epam.training.food.cache.AuthenticationCache;
+import com.epam.training.food.cache.AuthenticationCache.CachedCredentials;
+import com.epam.training.food.cache.FoodNameIndex;
+import com.epam.training.food.cache.MenuCache;
+import com.epam.training.food.cart.CartStore;
 import com.epam.training.food.domain.*;
+import com.epam.training.food.event.OrderCreatedEvent;
+import com.epam.training.food.inventory.InventoryService;
 import com.epam.training.food.repository.CustomerRepository;
 import com.epam.training.food.repository.FoodRepository;
 import com.epam.training.food.repository.OrderRepository;
 import com.epam.training.food.utility.ShoppingStateUtility;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.persistence.EntityNotFoundException;
 import javax.transaction.Transactional;
-import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Component
 public class DefaultFoodDeliveryService implements FoodDeliveryService {
+    private static final int ORDER_PAGE_SIZE = 500;
+
     private final ShoppingStateUtility shoppingAssistant;
     private final CustomerRepository customerRepository;
     private final FoodRepository foodRepository;
     private final OrderRepository orderRepository;
+    private final MenuCache menuCache;
+    private final AuthenticationCache authenticationCache;
+    private final CustomerLocks customerLocks;
+    private final CartStore cartStore;
+    private final InventoryService inventoryService;
+    private final OrderAggregates orderAggregates;
+    private final SalesWindows salesWindows;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OrderPlacementLock orderPlacementLock;
 
-
-    public DefaultFoodDeliveryService(CustomerRepository customerRepository, FoodRepository foodRepository, OrderRepository orderRepository) {
+    public DefaultFoodDeliveryService(CustomerRepository customerRepository, FoodRepository foodRepository, OrderRepository orderRepository,
+                                      MenuCache menuCache, AuthenticationCache authenticationCache, CustomerLocks customerLocks,
+                                      CartStore cartStore, InventoryService inventoryService,
+                                      OrderAggregates orderAggregates, SalesWindows salesWindows,
+                                      PlatformTransactionManager transactionManager, ApplicationEventPublisher eventPublisher,
+                                      OrderPlacementLock orderPlacementLock) {
         this.customerRepository = customerRepository;
         this.foodRepository = foodRepository;
         this.orderRepository = orderRepository;
+        this.menuCache = menuCache;
+        this.authenticationCache = authenticationCache;
+        this.customerLocks = customerLocks;
+        this.cartStore = cartStore;
+        this.inventoryService = inventoryService;
+        this.orderAggregates = orderAggregates;
+        this.salesWindows = salesWindows;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.orderPlacementLock = orderPlacementLock;
         shoppingAssistant = new ShoppingStateUtility();
     }
 
@@ -38,15 +84,48 @@ public class DefaultFoodDeliveryService implements FoodDeliveryService {
     public Customer authenticate(Credentials credentials) throws AuthenticationException {
         String username = credentials.getUserName();
         String password = credentials.getPassword();
+        if (username == null || password == null) throw new AuthenticationException("invalid Credentials");
+
+        byte[] passwordDigest = PasswordDigests.sha256(password);
+        CachedCredentials cached = authenticationCache.get(username);
+
+        if (cached != null) {
+            if (cached.isUnknownUser() || !PasswordDigests.matches(passwordDigest, cached.passwordDigest())) {
+                throw new AuthenticationException("invalid Credentials");
+            }
+            return customerRepository.findById(cached.customerId())
+                    .orElseThrow(() -> {
+                        authenticationCache.invalidate(username);
+                        return new AuthenticationException("invalid Credentials");
+                    });
+        }
 
-        return customerRepository.findCustomerByUserNameAndPassword(username, password)
-                .orElseThrow(() -> new AuthenticationException("invalid Credentials"));
+        Customer customer = customerRepository.findCustomerByUserName(username).orElse(null);
+        if (customer == null) {
+            authenticationCache.put(username, null, null);
+            throw new AuthenticationException("invalid Credentials");
+        }
+
+        byte[] storedDigest = PasswordDigests.sha256(customer.getPassword());
+        authenticationCache.put(username, customer.getId(), storedDigest);
+        if (!PasswordDigests.matches(passwordDigest, storedDigest)) throw new AuthenticationException("invalid Credentials");
+
+        return customer;
     }
 
-    @EnableReturnValueLogging
+    //the whole menu is returned on every call, so only a small sample of it is logged
+    @EnableReturnValueLogging(sampleRate = 0.01, maxLength = 256)
     @Override
     public List<Food> listAllFood() {
-        return foodRepository.findAll();
+        return menuCache.getAllFood();
+    }
+
+    public FoodNameIndex getMenuIndex() {
+        return menuCache.getNameIndex();
+    }
+
+    public Optional<Food> findFood(Long foodId) {
+        return menuCache.findById(foodId);
     }
 
     @EnableArgumentLogging
@@ -56,16 +135,134 @@ public class DefaultFoodDeliveryService implements FoodDeliveryService {
     public void updateCart(Customer customer, Food food, int pieces) {
         if (pieces < 0) throw new IllegalArgumentException("Number of items can not be negative");
 
-        BigDecimal itemsTotal = food.getPrice().multiply(BigDecimal.valueOf(pieces));
-        OrderItem item = new OrderItem(food, pieces, itemsTotal);
+        long itemsTotalCents = Money.times(food.getPriceCents(), pieces);
+        OrderItem item = new OrderItem(food, pieces, itemsTotalCents);
 
-        shoppingAssistant.updateItem(customer, item);
+        if (customer.getCart() == null) customer.setCart(Cart.getEmptyCart());
+        Cart cart = customer.getCart();
+        int reservedPieces = cart.getReservedPieces(food.getId());
+        inventoryService.reserve(cart, food, pieces);
+        try {
+            shoppingAssistant.updateItem(customer, item);
+        } catch (RuntimeException e) {
+            inventoryService.reserve(cart, food, reservedPieces);
+            throw e;
+        }
         shoppingAssistant.updateTotalPriceOfOrderItemsInTheCart(customer);
     }
 
+    //the customer's lock is held until the transaction has committed, so concurrent orders never read a stale balance
     @Override
-    @Transactional
     public Order createOrder(Customer customer) throws IllegalStateException {
+        Lock lock = customerLocks.forCustomer(customer.getId());
+        lock.lock();
+        try {
+            Order order = placeInTransaction(List.of(customer), () -> transactionTemplate.execute(status -> placeOrder(customer)));
+            inventoryService.commit(order);
+            publishOrderCreated(order);
+            return order;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //all orders are placed in one transaction and flushed as JDBC batches; any failure rolls the whole batch back
+    public List<Order> createOrders(List<Customer> customers) {
+        List<Lock> locks = customerLocks.forCustomers(customers.stream().map(Customer::getId).collect(Collectors.toList()));
+        locks.forEach(Lock::lock);
+        try {
+            List<Order> orders = placeInTransaction(customers, () -> transactionTemplate.execute(status -> customers.stream()
+                    .map(this::placeOrder)
+                    .collect(Collectors.toList())));
+            orders.forEach(inventoryService::commit);
+            orders.forEach(this::publishOrderCreated);
+            return orders;
+        } finally {
+            for (int i = locks.size() - 1; i >= 0; i--) {
+                locks.get(i).unlock();
+            }
+        }
+    }
+
+    public void updateSessionCart(Customer customer, Food food, int pieces) {
+        Lock lock = customerLocks.forCustomer(customer.getId());
+        lock.lock();
+        try {
+            customer.setCart(cartStore.getCart(customer.getId()));
+            try {
+                updateCart(customer, food, pieces);
+            } finally {
+                cartStore.putCart(customer.getId(), customer.getCart());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Cart getSessionCart(Customer customer) {
+        Lock lock = customerLocks.forCustomer(customer.getId());
+        lock.lock();
+        try {
+            Cart cart = cartStore.getCart(customer.getId());
+            Cart copy = new Cart();
+            copy.setOrderItems(cart.getOrderItems());
+            copy.setPrice(cart.getPrice());
+            return copy;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Order checkoutSessionCart(Customer customer) {
+        Lock lock = customerLocks.forCustomer(customer.getId());
+        lock.lock();
+        try {
+            customer.setCart(cartStore.getCart(customer.getId()));
+            Order order;
+            try {
+                order = createOrder(customer);
+            } catch (RuntimeException e) {
+                //keeps the reservations the cart held before checkout with it
+                cartStore.putCart(customer.getId(), customer.getCart());
+                throw e;
+            }
+            cartStore.remove(customer.getId());
+            return order;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //placeOrder tops up the reservations of the carts before the transaction commits; a rollback gives back what was
+    //taken on top of the reservations the carts held before, so a failed order never keeps stock out of the menu
+    private <T> T placeInTransaction(List<Customer> customers, Supplier<T> transaction) {
+        List<Cart> carts = new ArrayList<>(customers.size());
+        List<Map<Long, Integer>> reservationsBefore = new ArrayList<>(customers.size());
+        for (Customer customer : customers) {
+            if (customer.getCart() == null) continue;
+            carts.add(customer.getCart());
+            reservationsBefore.add(customer.getCart().getReservations());
+        }
+
+        try {
+            return orderPlacementLock.placing(transaction);
+        } catch (RuntimeException e) {
+            for (int i = 0; i < carts.size(); i++) {
+                inventoryService.restore(carts.get(i), reservationsBefore.get(i));
+            }
+            throw e;
+        }
+    }
+
+    //a reader that resumes after this id never misses a late commit, see OrderPlacementLock
+    public long getLastSettledOrderId() {
+        return orderPlacementLock.settled(() -> {
+            Long maxOrderId = orderRepository.findMaxOrderId();
+            return maxOrderId == null ? 0 : maxOrderId;
+        });
+    }
+
+    private Order placeOrder(Customer customer) {
         Cart cart = customer.getCart();
 
         Customer managedCustomer = customerRepository.findById(customer.getId())
@@ -73,10 +270,15 @@ public class DefaultFoodDeliveryService implements FoodDeliveryService {
 
         checkForEmptyCart(cart);
         checkSufficientBalance(managedCustomer, cart);
+        inventoryService.reserveAll(cart);
 
         return managedCustomer.makeOrder();
     }
 
+    private void publishOrderCreated(Order order) {
+        eventPublisher.publishEvent(new OrderCreatedEvent(toOrderDTO(order)));
+    }
+
     private static void checkSufficientBalance(Customer customer, Cart cart) {
         if (customer.getBalance().compareTo(cart.getPrice()) >= 0) {
             customer.setCart(cart);
@@ -86,21 +288,88 @@ public class DefaultFoodDeliveryService implements FoodDeliveryService {
     }
 
     private static void checkForEmptyCart(Cart cart) {
-        if (cart.getOrderItems().isEmpty()) throw new IllegalStateException("Unable to place order! Cart is empty");
+        if (cart.isEmpty()) throw new IllegalStateException("Unable to place order! Cart is empty");
+    }
+
+    public CustomerSpendingDTO getCustomerSpending(Long customerId) {
+        return orderAggregates.getCustomerSpending(customerId);
+    }
+
+    public FoodSalesDTO getFoodSales(Long foodId) {
+        return orderAggregates.getFoodSales(foodId);
+    }
+
+    public List<FoodSalesDTO> getTopDishes(int limit) {
+        return orderAggregates.getTopDishes(limit);
+    }
+
+    public List<FoodSalesDTO> getSales(SalesWindow window) {
+        return salesWindows.getSales(window);
+    }
+
+    public List<FoodSalesDTO> getTrendingDishes(SalesWindow window, int limit) {
+        return salesWindows.getTopDishes(window, limit);
     }
 
     public List<Order> getAllOrders() {
         return orderRepository.findAll();
     }
 
-    @Transactional
     public List<OrderDTO> getALlOrdersDTO() {
-        return orderRepository.findAll().stream()
-                .map(order -> {
-                    List<OrderItemDTO> orderItemDTOList = order.getOrderItems().stream()
-                            .map(item -> new OrderItemDTO(item.getFood().getId(), item.getFood().getName(), item.getPieces(), item.getPrice()))
-                            .collect(Collectors.toList());
-                    return new OrderDTO(order.getOrderId(), order.getCustomer().getId(), orderItemDTOList, order.getPrice(), order.getTimestampCreated());
-                }).collect(Collectors.toList());
+        return streamAllOrdersDTO().collect(Collectors.toList());
+    }
+
+    public Stream<OrderDTO> streamAllOrdersDTO() {
+        return streamOrdersDTO(0L, Long.MAX_VALUE);
+    }
+
+    //pages are keyed on order_id, each page is loaded in its own short read, so memory stays flat as history grows
+    public Stream<OrderDTO> streamOrdersDTO(long afterOrderId, long upToOrderId) {
+        return streamOrderPages(afterOrderId,
+                after -> orderRepository.findOrderIdsInRange(after, upToOrderId, PageRequest.of(0, ORDER_PAGE_SIZE)));
+    }
+
+    public Stream<OrderDTO> streamCustomerOrdersDTO(long customerId) {
+        return streamOrderPages(0L,
+                after -> orderRepository.findOrderIdsOfCustomerAfter(customerId, after, PageRequest.of(0, ORDER_PAGE_SIZE)));
+    }
+
+    private Stream<OrderDTO> streamOrderPages(long afterOrderId, LongFunction<List<Long>> orderIdsAfter) {
+        return Stream.iterate(fetchOrderPage(orderIdsAfter.apply(afterOrderId)),
+                        page -> page != OrderPage.LAST,
+                        page -> fetchOrderPage(orderIdsAfter.apply(page.lastOrderId())))
+                .flatMap(page -> page.orders().stream());
+    }
+
+    private OrderPage fetchOrderPage(List<Long> orderIds) {
+        if (orderIds.isEmpty()) return OrderPage.LAST;
+
+        return new OrderPage(orderIds.get(orderIds.size() - 1), toOrderDTOs(orderRepository.findItemRowsByOrderIdIn(orderIds)));
+    }
+
+    private static OrderDTO toOrderDTO(Order order) {
+        List<OrderItemDTO> orderItemDTOList = order.getOrderItems().stream()
+                .map(item -> new OrderItemDTO(item.getFood().getId(), item.getFood().getName(), item.getPieces(), item.getPrice()))
+                .collect(Collectors.toList());
+        return new OrderDTO(order.getOrderId(), order.getCustomer().getId(), orderItemDTOList, order.getPrice(), order.getTimestampCreated());
+    }
+
+    //rows arrive ordered by order id, so consecutive rows of the same order are folded into one OrderDTO
+    private static List<OrderDTO> toOrderDTOs(List<OrderItemRowDTO> rows) {
+        List<OrderDTO> orders = new ArrayList<>();
+        List<OrderItemDTO> items = null;
+
+        for (OrderItemRowDTO row : rows) {
+            if (items == null || !orders.get(orders.size() - 1).orderId().equals(row.orderId())) {
+                items = new ArrayList<>();
+                orders.add(new OrderDTO(row.orderId(), row.customerId(), items, row.orderPrice(), row.timestampCreated()));
+            }
+            items.add(new OrderItemDTO(row.foodId(), row.foodName(), row.pieces(), row.price()));
+        }
+        return orders;
+    }
+
+    private record OrderPage(long lastOrderId, List<OrderDTO> orders) {
+        static final OrderPage LAST = new OrderPage(Long.MAX_VALUE, List.of());
     }
 }
@@ -0,0 +1,35 @@
+package com.epam.training.food.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+//order ids come from a sequence handed out in increasing order, but transactions commit in any order, so a lower id
+//can still become visible after a higher one. Order transactions hold the read side until they end; while the write
+//side is held no order transaction is running, every id up to the largest visible one is final and any order placed
+//later gets a larger id
+@Component
+public class OrderPlacementLock {
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public <T> T placing(Supplier<T> transaction) {
+        lock.readLock().lock();
+        try {
+            return transaction.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //must not be called from within placing, the read side cannot be upgraded
+    public <T> T settled(Supplier<T> reader) {
+        lock.writeLock().lock();
+        try {
+            return reader.get();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
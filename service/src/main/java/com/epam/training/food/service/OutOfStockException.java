@@ -0,0 +1,7 @@
+package com.epam.training.food.service;
+
+public class OutOfStockException extends RuntimeException {
+    public OutOfStockException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,24 @@
+package com.epam.training.food.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+public final class PasswordDigests {
+
+    private PasswordDigests() {
+    }
+
+    public static byte[] sha256(String password) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(password.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    //both digests have the same length, and MessageDigest.isEqual does not stop at the first differing byte
+    public static boolean matches(byte[] digest, byte[] expectedDigest) {
+        return MessageDigest.isEqual(digest, expectedDigest);
+    }
+}
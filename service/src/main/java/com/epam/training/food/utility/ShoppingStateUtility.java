@@ -2,14 +2,11 @@ package com.epam.training.food.utility;
 
 import com.epam.training.food.domain.Cart;
 import com.epam.training.food.domain.Customer;
+import com.epam.training.food.domain.Money;
 import com.epam.training.food.domain.OrderItem;
 import com.epam.training.food.service.LowBalanceException;
 
-import java.math.BigDecimal;
-import java.util.stream.IntStream;
-
 public class ShoppingStateUtility {
-    public static final int NOT_FOUND_IN_CART = -1;
 
     public ShoppingStateUtility() {
     }
@@ -18,75 +15,48 @@ public class ShoppingStateUtility {
 
         if (customer.getCart() == null) customer.setCart(Cart.getEmptyCart());
 
-        if (customer.getCart().getOrderItems().isEmpty() && item.getPieces() != 0) {
-            addItemAndAdjustBalance(customer, item);
-            return;
-        }
-        int itemIndexInCart = findItemInCart(customer, item);
-
-        if (itemIndexInCart == NOT_FOUND_IN_CART) {
+        if (customer.getCart().getItem(item.getFood()) == null) {
             processAddNewItem(customer, item);
         } else {
-            processCartItemUpdate(customer, itemIndexInCart, item);
+            processCartItemUpdate(customer, item);
         }
     }
 
-    private void checkIfBalanceIsSufficient(Customer customer, BigDecimal amount) {
-        BigDecimal totalPriceOfOrderItems = getPriceOfOrderItems(customer);
-        BigDecimal remainingBalance = customer.getBalance().subtract(totalPriceOfOrderItems);
+    private void checkIfBalanceIsSufficient(Customer customer, long amountCents) {
+        long remainingBalanceCents = Money.subtract(customer.getBalanceCents(), customer.getCart().getItemsTotalCents());
 
-        if (remainingBalance.compareTo(amount) < 0) {
+        if (remainingBalanceCents < amountCents) {
             throw new LowBalanceException("Insufficient balance to add item");
         }
     }
 
-    private int findItemInCart(Customer customer, OrderItem item) {
-        return IntStream.range(0, customer.getCart().getOrderItems().size())
-                .filter(i -> customer.getCart().getOrderItems().get(i).getFood().getName()
-                        .equals(item.getFood().getName()))
-                .findFirst()
-                .orElse(NOT_FOUND_IN_CART);
-    }
-
-    private void addItemAndAdjustBalance(Customer customer, OrderItem item) {
-        this.checkIfBalanceIsSufficient(customer, item.getPrice());
-        customer.getCart().getOrderItems().add(item);
+    private void putItemAndAdjustBalance(Customer customer, OrderItem item) {
+        this.checkIfBalanceIsSufficient(customer, item.getPriceCents());
+        customer.getCart().putItem(item);
     }
 
-    private void removeItem(Customer customer, int index) {
-        customer.getCart().getOrderItems().remove(index);
-    }
-
-    private void updateItemAndAdjustBalance(Customer customer, int index, OrderItem item) {
-        this.checkIfBalanceIsSufficient(customer, item.getPrice());
-        customer.getCart().getOrderItems().set(index, item);
+    private void removeItem(Customer customer, OrderItem item) {
+        customer.getCart().removeItem(item.getFood());
     }
 
     private void processAddNewItem(Customer customer, OrderItem item) {
         if (item.getPieces() == 0) {
             throw new IllegalArgumentException("Item does not exist in Cart");
         } else {
-            addItemAndAdjustBalance(customer, item);
+            putItemAndAdjustBalance(customer, item);
         }
     }
 
-    private void processCartItemUpdate(Customer customer, int itemIndex, OrderItem item) {
+    private void processCartItemUpdate(Customer customer, OrderItem item) {
         if (item.getPieces() > 0) {
-            updateItemAndAdjustBalance(customer, itemIndex, item);
+            putItemAndAdjustBalance(customer, item);
         } else {
-            removeItem(customer, itemIndex);
+            removeItem(customer, item);
         }
     }
 
     public void updateTotalPriceOfOrderItemsInTheCart(Customer customer) {
-        BigDecimal priceOfOrderItems = getPriceOfOrderItems(customer);
-        customer.getCart().setPrice(priceOfOrderItems);
-    }
-
-    private BigDecimal getPriceOfOrderItems(Customer customer) {
-        return customer.getCart().getOrderItems().stream()
-                .map(OrderItem::getPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        customer.getCart().setPrice(customer.getCart().getItemsTotal());
     }
 
 }